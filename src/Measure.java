@@ -1,17 +1,47 @@
 import binarytree.AVL;
+import binarytree.PooledAVL;
 import binarytree.Splay;
+import hashtable.CacheStats;
+import hashtable.ConcurrentHashTableChaining;
+import hashtable.ConcurrentHashTableLinearProbing;
+import hashtable.CountingBloomFilter;
+import hashtable.DurableHashTable;
+import hashtable.EvictionPolicy;
+import hashtable.HashStrategy;
+import hashtable.HashTable;
+import hashtable.HashTableArena;
 import hashtable.HashTableChaining;
+import hashtable.HashTableCuckoo;
 import hashtable.HashTableLinearProbing;
+import hashtable.HashTablePackedKeys;
+import hashtable.HashTableSwiss;
+import hashtable.KeyCodec;
+import hashtable.MappedHashTable;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static hashtable.HashTableChaining.*;
 
@@ -758,6 +788,1041 @@ public class Measure {
         printHTLMeasure(data.size(), datasetNumber, false);
     }
 
+    public void startChurnMeasureHTL(List<Entry> data, HashTableLinearProbing tableLinearProbing, int liveSize, int cycles, FileWriter writer) throws IOException {
+        String name = tableLinearProbing.isRobinHood() ? "HashTable Robin Hood" : "HashTable Linear Probing";
+        int reportInterval = Math.max(1, cycles / 10);
+        int sampleSize = Math.min(liveSize, 100000);
+
+        tableLinearProbing.insert(data.subList(0, liveSize));
+
+        for (int i = 0; i < cycles; i++) {
+            tableLinearProbing.deleteValue(data.get(i % data.size()));
+            tableLinearProbing.insertValue(data.get((i + liveSize) % data.size()));
+
+            if ((i + 1) % reportInterval == 0) {
+                long searchStart = System.nanoTime();
+                for (int j = 0; j < sampleSize; j++) {
+                    tableLinearProbing.searchValue(data.get((i + 1 + j) % data.size()));
+                }
+                long searchEnd = System.nanoTime();
+                long avgSearch = (searchEnd - searchStart) / sampleSize;
+
+                int maxProbe = tableLinearProbing.getMaxProbeLength();
+                double avgProbe = tableLinearProbing.getAverageProbeLength();
+                int tombstones = tableLinearProbing.getTombstoneCount();
+
+                System.out.println("-> " + name + " after " + ANSI_CYAN + (i + 1) + ANSI_RESET + " cycles ==> " +
+                        "avg probe length: " + ANSI_YELLOW + String.format("%.3f", avgProbe) + ANSI_RESET +
+                        " | max probe length: " + ANSI_RED + maxProbe + ANSI_RESET +
+                        " | tombstones: " + ANSI_CYAN + tombstones + ANSI_RESET +
+                        " | avg search: " + ANSI_GREEN + avgSearch + "nanos" + ANSI_RESET);
+                writer.write(name + "," + (i + 1) + "," + avgProbe + "," + maxProbe + "," + tombstones + "," + avgSearch + "\n");
+            }
+        }
+        System.out.println();
+    }
+
+    public void startLatencyMeasure(String name, String operation, List<Entry> data, Consumer<Entry> action, FileWriter writer) throws IOException {
+        long[] latencies = new long[data.size()];
+
+        for (int i = 0; i < data.size(); i++) {
+            long start = System.nanoTime();
+            action.accept(data.get(i));
+            long end = System.nanoTime();
+            latencies[i] = end - start;
+        }
+
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[(int) (latencies.length * 0.50)];
+        long p99 = latencies[(int) (latencies.length * 0.99)];
+        long p999 = latencies[(int) (latencies.length * 0.999)];
+        long max = latencies[latencies.length - 1];
+
+        System.out.println("-> " + name + " " + operation + " of " + ANSI_CYAN + data.size() + ANSI_RESET + " entries ==> " +
+                "p50: " + ANSI_GREEN + p50 + "nanos" + ANSI_RESET +
+                " | p99: " + ANSI_YELLOW + p99 + "nanos" + ANSI_RESET +
+                " | p99.9: " + ANSI_YELLOW + p999 + "nanos" + ANSI_RESET +
+                " | max: " + ANSI_RED + max + "nanos" + ANSI_RESET +
+                " | total: " + ANSI_CYAN + (total / 1000000) + "ms" + ANSI_RESET);
+        writer.write(name + "," + operation + "," + data.size() + "," + p50 + "," + p99 + "," + p999 + "," + max + "," + total + "\n");
+    }
+
+    // 80% searches, 10% inserts and 10% deletes of random dataset keys, spread over the given number of threads
+    public double startThroughputMeasure(HashTable table, List<Entry> data, int threads, int operations) throws InterruptedException {
+        table.insert(data.subList(0, data.size() / 2));
+
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    Entry entry = data.get(random.nextInt(data.size()));
+                    int operation = random.nextInt(10);
+                    if (operation == 0) {
+                        table.insertValue(entry);
+                    } else if (operation == 1) {
+                        table.deleteValue(entry);
+                    } else {
+                        table.searchValue(entry);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long end = System.nanoTime();
+
+        return (double) threads * operations / ((end - start) / 1_000_000_000.0);
+    }
+
+    private static class SynchronizedHashTable implements HashTable {
+        private final HashTable table;
+
+        SynchronizedHashTable(HashTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public synchronized void insert(List<Entry> data) {
+            table.insert(data);
+        }
+
+        @Override
+        public synchronized void search(List<Entry> data) {
+            table.search(data);
+        }
+
+        @Override
+        public synchronized void delete(List<Entry> data) {
+            table.delete(data);
+        }
+
+        @Override
+        public synchronized void insertValue(Entry entry) {
+            table.insertValue(entry);
+        }
+
+        @Override
+        public synchronized boolean searchValue(Entry entry) {
+            return table.searchValue(entry);
+        }
+
+        @Override
+        public synchronized boolean deleteValue(Entry entry) {
+            return table.deleteValue(entry);
+        }
+    }
+
+    // Fills tables of one fixed capacity up to every load factor, so no resize blurs the occupancy being measured.
+    public void startLoadFactorMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        int capacity = Integer.highestOneBit(data.size() / 2);
+        float[] loadFactors = {0.5f, 0.6f, 0.7f, 0.8f, 0.85f, 0.9f, 0.95f};
+
+        for (float loadFactor : loadFactors) {
+            int count = (int) (capacity * loadFactor);
+            List<Entry> present = data.subList(0, count);
+            List<Entry> missing = data.subList(data.size() - capacity / 2, data.size());
+
+            HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(capacity, 1.0f);
+            HashTableSwiss tableSwiss = new HashTableSwiss(capacity, 1.0f);
+            HashTableSwiss tableSwissScalar = new HashTableSwiss(capacity, 1.0f, true);
+            tableLinearProbing.insert(present);
+            tableSwiss.insert(present);
+            tableSwissScalar.insert(present);
+
+            long[] linearProbing = measureHitAndMiss(tableLinearProbing, present, missing);
+            long[] swiss = measureHitAndMiss(tableSwiss, present, missing);
+            long[] swissScalar = measureHitAndMiss(tableSwissScalar, present, missing);
+
+            System.out.println("-> load factor " + ANSI_CYAN + loadFactor + ANSI_RESET + " (" + count + "/" + capacity + ") hit / miss ==> " +
+                    "HashTable Linear Probing: " + ANSI_YELLOW + linearProbing[0] + "/" + linearProbing[1] + "nanos" + ANSI_RESET +
+                    " | HashTable Swiss: " + ANSI_GREEN + swiss[0] + "/" + swiss[1] + "nanos" + ANSI_RESET +
+                    " | HashTable Swiss scalar: " + ANSI_GREEN + swissScalar[0] + "/" + swissScalar[1] + "nanos" + ANSI_RESET);
+            writer.write(loadFactor + "," + linearProbing[0] + "," + linearProbing[1] + "," + swiss[0] + "," + swiss[1] + "," + swissScalar[0] + "," + swissScalar[1] + "\n");
+        }
+    }
+
+    // Heap per entry and search time of the Entry based linear probing table against the packed key table.
+    // Keys and values are copied first, so the Entry table pays for its own Strings like it would outside the benchmark.
+    public void startPackedKeysMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        long before = usedHeap();
+        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+        for (Entry e : data) {
+            tableLinearProbing.insertValue(new Entry(new String(e.getKey().toCharArray()), new String(e.getValue().toCharArray())));
+        }
+        long linearProbingBytes = usedHeap() - before;
+
+        before = usedHeap();
+        HashTablePackedKeys tablePackedKeys = new HashTablePackedKeys(10, 0.75f);
+        tablePackedKeys.insert(data);
+        long packedKeysBytes = usedHeap() - before;
+
+        long[] packedKeys = new long[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            packedKeys[i] = KeyCodec.encode(data.get(i).getKey());
+        }
+
+        long startTime = System.nanoTime();
+        tableLinearProbing.search(data);
+        long linearProbingSearch = (System.nanoTime() - startTime) / data.size();
+
+        startTime = System.nanoTime();
+        for (long key : packedKeys) {
+            tablePackedKeys.containsKey(key);
+        }
+        long packedKeysSearch = (System.nanoTime() - startTime) / data.size();
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " entries heap per entry / search ==> " +
+                "HashTable Linear Probing: " + ANSI_YELLOW + linearProbingBytes / data.size() + "B/" + linearProbingSearch + "nanos" + ANSI_RESET +
+                " | HashTable Packed Keys: " + ANSI_GREEN + packedKeysBytes / data.size() + "B/" + packedKeysSearch + "nanos" + ANSI_RESET);
+        writer.write(data.size() + "," + linearProbingBytes / data.size() + "," + linearProbingSearch + "," + packedKeysBytes / data.size() + "," + packedKeysSearch + "\n");
+    }
+
+    // Lookups of keys that sit in one byte buffer, the way a request parser sees them: decoding every key into a String
+    // and an Entry first, against probing the tables straight from the buffer.
+    public void startByteKeyMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+        tableChaining.insert(data);
+        tableLinearProbing.insert(data);
+
+        byte[] buffer = new byte[data.stream().mapToInt(e -> e.getKey().length()).sum()];
+        int[] offsets = new int[data.size() + 1];
+        for (int i = 0; i < data.size(); i++) {
+            byte[] key = data.get(i).getKey().getBytes(StandardCharsets.ISO_8859_1);
+            System.arraycopy(key, 0, buffer, offsets[i], key.length);
+            offsets[i + 1] = offsets[i] + key.length;
+        }
+
+        long[] chaining = new long[2];
+        long[] linearProbing = new long[2];
+        for (int round = 0; round < 2; round++) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < data.size(); i++) {
+                String key = new String(buffer, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.ISO_8859_1);
+                tableChaining.searchValue(new Entry(key, ""));
+            }
+            chaining[0] = (System.nanoTime() - startTime) / data.size();
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < data.size(); i++) {
+                tableChaining.searchValue(buffer, offsets[i], offsets[i + 1] - offsets[i]);
+            }
+            chaining[1] = (System.nanoTime() - startTime) / data.size();
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < data.size(); i++) {
+                String key = new String(buffer, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.ISO_8859_1);
+                tableLinearProbing.searchValue(new Entry(key, ""));
+            }
+            linearProbing[0] = (System.nanoTime() - startTime) / data.size();
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < data.size(); i++) {
+                tableLinearProbing.searchValue(buffer, offsets[i], offsets[i + 1] - offsets[i]);
+            }
+            linearProbing[1] = (System.nanoTime() - startTime) / data.size();
+        }
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " searches String+Entry / bytes ==> " +
+                "HashTable Chaining: " + ANSI_YELLOW + chaining[0] + "/" + chaining[1] + "nanos" + ANSI_RESET +
+                " | HashTable Linear Probing: " + ANSI_YELLOW + linearProbing[0] + "/" + linearProbing[1] + "nanos" + ANSI_RESET);
+        writer.write(data.size() + "," + chaining[0] + "," + chaining[1] + "," + linearProbing[0] + "," + linearProbing[1] + "\n");
+    }
+
+    // Every key is built from the blocks "Aa" and "BB", which have the same String.hashCode, so all keys of a round
+    // collide. Chaining keeps them in one treeified bucket, linear probing has to walk one long run.
+    public void startCollisionFloodMeasure(FileWriter writer) throws IOException {
+        int[] counts = {1000, 2000, 4000, 8000, 16000};
+
+        for (int count : counts) {
+            List<Entry> flood = collidingEntries(count, 14);
+
+            HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+            HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+            tableChaining.insert(flood);
+            tableLinearProbing.insert(flood);
+
+            long startTime = System.nanoTime();
+            tableChaining.search(flood);
+            long chainingSearch = (System.nanoTime() - startTime) / count;
+
+            startTime = System.nanoTime();
+            tableLinearProbing.search(flood);
+            long linearProbingSearch = (System.nanoTime() - startTime) / count;
+
+            System.out.println("-> " + ANSI_CYAN + count + ANSI_RESET + " colliding keys search ==> " +
+                    "HashTable Chaining (" + tableChaining.getTreeBucketCount() + " tree buckets): " + ANSI_GREEN + chainingSearch + "nanos" + ANSI_RESET +
+                    " | HashTable Linear Probing: " + ANSI_RED + linearProbingSearch + "nanos" + ANSI_RESET);
+            writer.write(count + "," + chainingSearch + "," + linearProbingSearch + "\n");
+        }
+    }
+
+    // count distinct keys of the given number of "Aa"/"BB" blocks, all with the same String.hashCode
+    private List<Entry> collidingEntries(int count, int blocks) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int block = 0; block < blocks; block++) {
+                key.append(((i >> block) & 1) == 0 ? "Aa" : "BB");
+            }
+            entries.add(new Entry(key.toString(), "flood"));
+        }
+        return entries;
+    }
+
+    // Chain and probe length histograms plus insert and search time of every hash strategy, on the dataset and on
+    // keys sharing one String.hashCode (which only the strategies that hash the characters themselves can tell apart).
+    public void startHashStrategyMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        measureHashStrategies("dataset", data, writer);
+        measureHashStrategies("equal hashCode", collidingEntries(4096, 12), writer);
+    }
+
+    private void measureHashStrategies(String dataName, List<Entry> data, FileWriter writer) throws IOException {
+        int maxLength = 8;
+        for (HashStrategy strategy : HashStrategy.values()) {
+            // fresh entries, so no hash cached by an earlier strategy is reused
+            List<Entry> entries = new ArrayList<>();
+            for (Entry e : data) {
+                entries.add(new Entry(e.getKey(), e.getValue()));
+            }
+
+            HashTableChaining tableChaining = new HashTableChaining(10, 1.5f, strategy);
+            HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f, false, strategy);
+
+            long startTime = System.nanoTime();
+            tableChaining.insert(entries);
+            long chainingInsert = (System.nanoTime() - startTime) / data.size();
+            // lookups by key hash on every call, the Entry cache cannot hide the cost of the strategy
+            startTime = System.nanoTime();
+            for (Entry e : entries) {
+                tableChaining.searchValue((CharSequence) e.getKey());
+            }
+            long chainingSearch = (System.nanoTime() - startTime) / data.size();
+
+            entries.replaceAll(e -> new Entry(e.getKey(), e.getValue()));
+            startTime = System.nanoTime();
+            tableLinearProbing.insert(entries);
+            long linearProbingInsert = (System.nanoTime() - startTime) / data.size();
+            startTime = System.nanoTime();
+            for (Entry e : entries) {
+                tableLinearProbing.searchValue((CharSequence) e.getKey());
+            }
+            long linearProbingSearch = (System.nanoTime() - startTime) / data.size();
+
+            int[] chains = tableChaining.getChainLengthHistogram(maxLength);
+            int[] probes = tableLinearProbing.getProbeLengthHistogram(maxLength);
+            System.out.println("-> " + dataName + " (" + ANSI_CYAN + data.size() + ANSI_RESET + ") " + ANSI_CYAN + strategy + ANSI_RESET + " insert / search ==> " +
+                    "HashTable Chaining: " + ANSI_YELLOW + chainingInsert + "/" + chainingSearch + "nanos" + ANSI_RESET +
+                    " | HashTable Linear Probing: " + ANSI_YELLOW + linearProbingInsert + "/" + linearProbingSearch + "nanos" + ANSI_RESET);
+            System.out.println("\tbuckets with 0.." + maxLength + "+ entries: " + Arrays.toString(chains));
+            System.out.println("\tentries 0.." + maxLength + "+ slots from home: " + Arrays.toString(probes));
+
+            writer.write(dataName + "," + strategy + "," + chainingInsert + "," + chainingSearch + "," + linearProbingInsert + "," + linearProbingSearch);
+            for (int count : chains) {
+                writer.write("," + count);
+            }
+            for (int count : probes) {
+                writer.write("," + count);
+            }
+            writer.write("\n");
+        }
+    }
+
+    // Deletes 90% of the dataset and shows how the tables shrink and compact: stats and search time of the surviving
+    // entries before and after the purge.
+    public void startPurgeMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        List<Entry> purged = data.subList(0, data.size() * 9 / 10);
+        List<Entry> survivors = data.subList(purged.size(), data.size());
+
+        HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+        tableChaining.insert(data);
+        tableLinearProbing.insert(data);
+
+        long[] chaining = new long[2];
+        long[] linearProbing = new long[2];
+        for (int phase = 0; phase < 2; phase++) {
+            if (phase == 1) {
+                tableChaining.delete(purged);
+                tableLinearProbing.delete(purged);
+            }
+
+            long startTime = System.nanoTime();
+            tableChaining.search(survivors);
+            chaining[phase] = (System.nanoTime() - startTime) / survivors.size();
+            startTime = System.nanoTime();
+            tableLinearProbing.search(survivors);
+            linearProbing[phase] = (System.nanoTime() - startTime) / survivors.size();
+
+            System.out.println("-> " + ((phase == 0) ? "before" : "after") + " purge of " + ANSI_CYAN + purged.size() + ANSI_RESET + " entries, search ==> " +
+                    "HashTable Chaining: " + ANSI_YELLOW + chaining[phase] + "nanos" + ANSI_RESET +
+                    " | HashTable Linear Probing: " + ANSI_YELLOW + linearProbing[phase] + "nanos" + ANSI_RESET);
+            System.out.println("\tHashTable Chaining: " + tableChaining.getStats());
+            System.out.println("\tHashTable Linear Probing: " + tableLinearProbing.getStats());
+            writer.write(((phase == 0) ? "before" : "after") + "," + chaining[phase] + "," + tableChaining.getCapacity() + "," +
+                    linearProbing[phase] + "," + tableLinearProbing.getCapacity() + "," + tableLinearProbing.getTombstoneCount() + "\n");
+        }
+    }
+
+    // Random keys in tables that are far bigger than the last level cache, looked up in random order one by one and
+    // in batches of growing windows. Every run is done twice and only the second one is reported, after the JIT.
+    public void startBatchLookupMeasure(int keys, FileWriter writer) throws IOException {
+        List<Entry> entries = new ArrayList<>(keys);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < keys; i++) {
+            char[] key = new char[10];
+            for (int j = 0; j < key.length; j++) {
+                key[j] = (char) random.nextInt('a', 'z' + 1);
+            }
+            entries.add(new Entry(new String(key), "batch"));
+        }
+        HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+        tableChaining.insert(entries);
+        tableLinearProbing.insert(entries);
+
+        List<Entry> queries = new ArrayList<>(entries);
+        Collections.shuffle(queries);
+        int[] windows = {1, 4, 8, 16, 32, 64};
+
+        long chainingSingle = 0;
+        long linearProbingSingle = 0;
+        for (int run = 0; run < 2; run++) {
+            long startTime = System.nanoTime();
+            for (Entry e : queries) {
+                tableChaining.searchValue(e);
+            }
+            chainingSingle = (System.nanoTime() - startTime) / keys;
+            startTime = System.nanoTime();
+            for (Entry e : queries) {
+                tableLinearProbing.searchValue(e);
+            }
+            linearProbingSingle = (System.nanoTime() - startTime) / keys;
+        }
+        System.out.println("-> " + ANSI_CYAN + keys + ANSI_RESET + " keys one by one ==> " +
+                "HashTable Chaining: " + ANSI_YELLOW + chainingSingle + "nanos" + ANSI_RESET +
+                " | HashTable Linear Probing: " + ANSI_YELLOW + linearProbingSingle + "nanos" + ANSI_RESET);
+        writer.write(keys + ",0," + chainingSingle + "," + linearProbingSingle + "\n");
+
+        for (int window : windows) {
+            long chainingBatch = 0;
+            long linearProbingBatch = 0;
+            for (int run = 0; run < 2; run++) {
+                long startTime = System.nanoTime();
+                tableChaining.searchBatch(queries, window);
+                chainingBatch = (System.nanoTime() - startTime) / keys;
+                startTime = System.nanoTime();
+                tableLinearProbing.searchBatch(queries, window);
+                linearProbingBatch = (System.nanoTime() - startTime) / keys;
+            }
+            System.out.println("-> " + ANSI_CYAN + keys + ANSI_RESET + " keys in windows of " + ANSI_CYAN + window + ANSI_RESET + " ==> " +
+                    "HashTable Chaining: " + ANSI_GREEN + chainingBatch + "nanos" + ANSI_RESET +
+                    " | HashTable Linear Probing: " + ANSI_GREEN + linearProbingBatch + "nanos" + ANSI_RESET);
+            writer.write(keys + "," + window + "," + chainingBatch + "," + linearProbingBatch + "\n");
+        }
+    }
+
+    // Restart cost: parsing htDataset.txt and inserting every entry, against mapping a snapshot of the same table.
+    // Lookups of all keys are then timed in the rebuilt table and straight against the mapped file.
+    public void startSnapshotMeasure(List<Entry> data, FileWriter writer) throws IOException {
+        Path path = Path.of("htSnapshot.bin");
+
+        long startTime = System.nanoTime();
+        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+        Scanner reader = new Scanner(new File("htDataset.txt"));
+        while (reader.hasNextLine()) {
+            List<String> s = List.of(reader.nextLine().split(";"));
+            tableLinearProbing.insertValue(new Entry(s.get(0), s.get(1)));
+        }
+        reader.close();
+        long rebuild = (System.nanoTime() - startTime) / 1000000;
+
+        startTime = System.nanoTime();
+        MappedHashTable.save(tableLinearProbing, path);
+        long save = (System.nanoTime() - startTime) / 1000000;
+
+        startTime = System.nanoTime();
+        try (MappedHashTable mappedTable = MappedHashTable.open(path)) {
+            long open = (System.nanoTime() - startTime) / 1000000;
+
+            startTime = System.nanoTime();
+            for (Entry e : data) {
+                tableLinearProbing.searchValue((CharSequence) e.getKey());
+            }
+            long heapSearch = (System.nanoTime() - startTime) / data.size();
+
+            startTime = System.nanoTime();
+            for (Entry e : data) {
+                mappedTable.searchValue((CharSequence) e.getKey());
+            }
+            long mappedSearch = (System.nanoTime() - startTime) / data.size();
+
+            System.out.println("-> " + ANSI_CYAN + mappedTable.getSize() + ANSI_RESET + " entries (" + Files.size(path) / 1024 + "KB snapshot) ==> " +
+                    "rebuild from text: " + ANSI_RED + rebuild + "ms" + ANSI_RESET +
+                    " | save snapshot: " + ANSI_YELLOW + save + "ms" + ANSI_RESET +
+                    " | open snapshot: " + ANSI_GREEN + open + "ms" + ANSI_RESET);
+            System.out.println("\tsearch ==> HashTable Linear Probing: " + ANSI_YELLOW + heapSearch + "nanos" + ANSI_RESET +
+                    " | mapped snapshot: " + ANSI_YELLOW + mappedSearch + "nanos" + ANSI_RESET);
+            writer.write(mappedTable.getSize() + "," + rebuild + "," + save + "," + open + "," + heapSearch + "," + mappedSearch + "\n");
+        }
+    }
+
+    // Mutations per second of DurableHashTable under every fsync policy next to the table without a log. Syncs per
+    // mutation below 1 under ALWAYS show how many concurrent mutations group commit covers with one fsync.
+    public void startDurabilityMeasure(List<Entry> data, int threads, int operations, FileWriter writer) throws IOException, InterruptedException {
+        double memoryOps = startMutationMeasure(new SynchronizedHashTable(new HashTableLinearProbing(10, 0.75f)), data, threads, operations);
+        System.out.print("-> " + ANSI_CYAN + threads + ANSI_RESET + " threads ==> in memory: " + ANSI_GREEN + String.format("%.0f", memoryOps) + " ops/s" + ANSI_RESET);
+        writer.write(threads + "," + memoryOps);
+
+        for (DurableHashTable.FsyncPolicy policy : DurableHashTable.FsyncPolicy.values()) {
+            Path directory = Files.createTempDirectory("htDurability");
+            double ops;
+            long syncs;
+            try (DurableHashTable table = new DurableHashTable(directory, policy)) {
+                ops = startMutationMeasure(table, data, threads, operations);
+                syncs = table.getSyncCount();
+            } finally {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+            System.out.print(" | " + policy + ": " + ANSI_YELLOW + String.format("%.0f", ops) + " ops/s" + ANSI_RESET +
+                    " (" + ANSI_CYAN + syncs + ANSI_RESET + " fsyncs)");
+            writer.write("," + ops + "," + syncs);
+        }
+        System.out.println();
+        writer.write("\n");
+    }
+
+    // 90% inserts and 10% deletes of random dataset keys, spread over the given number of threads
+    private double startMutationMeasure(HashTable table, List<Entry> data, int threads, int operations) throws InterruptedException {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    Entry entry = data.get(random.nextInt(data.size()));
+                    if (random.nextInt(10) == 0) {
+                        table.deleteValue(entry);
+                    } else {
+                        table.insertValue(entry);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long end = System.nanoTime();
+
+        return (double) threads * operations / ((end - start) / 1_000_000_000.0);
+    }
+
+    // Cache-aside on a skewed trace: every lookup that misses inserts the key. Most lookups pick from the front of the
+    // dataset with a heavy skew, one in ten picks uniformly, which is the kind of one-off traffic a cache should not
+    // keep. Every policy sees the same trace.
+    public void startCacheMeasure(List<Entry> data, int maxEntries, FileWriter writer) throws IOException {
+        int[] trace = new int[data.size() * 10];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = (random.nextInt(10) == 0) ? random.nextInt(data.size()) : (int) (data.size() * Math.pow(random.nextDouble(), 4));
+        }
+
+        System.out.print("-> " + ANSI_CYAN + maxEntries + ANSI_RESET + " of " + ANSI_CYAN + data.size() + ANSI_RESET + " entries cached ==>");
+        writer.write(String.valueOf(maxEntries));
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            HashTableChaining cache = new HashTableChaining(10, 1.5f, policy, maxEntries);
+            long startTime = System.nanoTime();
+            for (int i : trace) {
+                Entry entry = data.get(i);
+                if (!cache.searchValue(entry)) {
+                    cache.insertValue(entry);
+                }
+            }
+            long perOperation = (System.nanoTime() - startTime) / trace.length;
+
+            CacheStats stats = cache.getCacheStats();
+            System.out.print(" " + policy + ": hit rate " + ANSI_GREEN + String.format("%.3f", stats.getHitRate()) + ANSI_RESET +
+                    ", " + ANSI_YELLOW + perOperation + "nanos" + ANSI_RESET + " per lookup, " + ANSI_CYAN + stats.getEvictions() + ANSI_RESET + " evictions |");
+            writer.write("," + stats.getHitRate() + "," + perOperation + "," + stats.getEvictions());
+        }
+        System.out.println();
+        writer.write("\n");
+    }
+
+    // Every dataset entry gets a random time to live of up to EXPIRY_SPAN simulated milliseconds. The clock then moves
+    // one millisecond at a time and the timing wheel expires with a bounded budget per tick, compared with the old way
+    // of scanning the whole table every SCAN_INTERVAL milliseconds. The longest tick is the latency spike a caller sees.
+    public void startExpiryMeasure(String name, Supplier<HashTable> factory, List<Entry> data, FileWriter writer) throws IOException {
+        final int EXPIRY_SPAN = 10000;
+        final int SCAN_INTERVAL = 100;
+        final int TICK_BUDGET = 1000;
+        long[] ttls = new long[data.size()];
+        for (int i = 0; i < ttls.length; i++) {
+            ttls[i] = 1 + ThreadLocalRandom.current().nextInt(EXPIRY_SPAN);
+        }
+
+        long[] wheelResult = new long[2];
+        long[] scanResult = new long[2];
+        for (int round = 0; round < 2; round++) {
+            boolean wheel = round == 0;
+            long[] now = new long[1];
+            HashTable table = factory.get();
+            // expired entries shrink the table, which would be the longest tick otherwise
+            if (table instanceof HashTableChaining) {
+                ((HashTableChaining) table).setIncrementalResize(true);
+                ((HashTableChaining) table).setClock(() -> now[0]);
+                for (int i = 0; i < ttls.length; i++) {
+                    ((HashTableChaining) table).insertValue(data.get(i), ttls[i]);
+                }
+            } else {
+                ((HashTableLinearProbing) table).setIncrementalResize(true);
+                ((HashTableLinearProbing) table).setClock(() -> now[0]);
+                for (int i = 0; i < ttls.length; i++) {
+                    ((HashTableLinearProbing) table).insertValue(data.get(i), ttls[i]);
+                }
+            }
+
+            long total = 0;
+            long longest = 0;
+            for (now[0] = 1; now[0] <= EXPIRY_SPAN; now[0]++) {
+                long startTime = System.nanoTime();
+                if (wheel) {
+                    if (table instanceof HashTableChaining) {
+                        ((HashTableChaining) table).expire(TICK_BUDGET);
+                    } else {
+                        ((HashTableLinearProbing) table).expire(TICK_BUDGET);
+                    }
+                } else if (now[0] % SCAN_INTERVAL == 0) {
+                    // lookups drop the expired entries they run into
+                    table.search(data);
+                }
+                long tick = System.nanoTime() - startTime;
+                total += tick;
+                longest = Math.max(longest, tick);
+            }
+            long[] result = wheel ? wheelResult : scanResult;
+            result[0] = (long) (ttls.length / (total / 1_000_000_000.0));
+            result[1] = longest / 1000;
+        }
+
+        System.out.println("-> " + name + " " + ANSI_CYAN + data.size() + ANSI_RESET + " entries ==> " +
+                "timing wheel: " + ANSI_GREEN + wheelResult[0] + " expirations/s" + ANSI_RESET + ", longest tick " + ANSI_YELLOW + wheelResult[1] + "micros" + ANSI_RESET +
+                " | full scan every " + SCAN_INTERVAL + "ms: " + ANSI_GREEN + scanResult[0] + " expirations/s" + ANSI_RESET + ", longest tick " + ANSI_RED + scanResult[1] + "micros" + ANSI_RESET);
+        writer.write(name + "," + data.size() + "," + wheelResult[0] + "," + wheelResult[1] + "," + scanResult[0] + "," + scanResult[1] + "\n");
+    }
+
+    // Hits and misses with and without the negative lookup filter. The missing keys are the dataset keys with a
+    // suffix, so they hash like any other key; the false positive rate is the share of them the filter let through.
+    public void startFilterMeasure(String name, Supplier<HashTable> factory, List<Entry> data, FileWriter writer) throws IOException {
+        List<Entry> missing = new ArrayList<>();
+        for (Entry e : data) {
+            missing.add(new Entry(e.getKey() + "#", e.getValue()));
+        }
+
+        long[][] results = new long[2][];
+        CountingBloomFilter filter = null;
+        for (int round = 0; round < 2; round++) {
+            HashTable table = factory.get();
+            table.insert(data);
+            if (round == 1) {
+                if (table instanceof HashTableChaining) {
+                    ((HashTableChaining) table).setNegativeLookupFilter(true);
+                    filter = ((HashTableChaining) table).getNegativeLookupFilter();
+                } else {
+                    ((HashTableLinearProbing) table).setNegativeLookupFilter(true);
+                    filter = ((HashTableLinearProbing) table).getNegativeLookupFilter();
+                }
+            }
+            // warm-up passes, then the measured one
+            for (int i = 0; i < 3; i++) {
+                measureHitAndMiss(table, data, missing);
+            }
+            results[round] = measureHitAndMiss(table, data, missing);
+        }
+
+        System.out.println("-> " + name + " " + ANSI_CYAN + data.size() + ANSI_RESET + " entries ==> " +
+                "no filter: hit " + ANSI_YELLOW + results[0][0] + "nanos" + ANSI_RESET + ", miss " + ANSI_RED + results[0][1] + "nanos" + ANSI_RESET +
+                " | filter: hit " + ANSI_YELLOW + results[1][0] + "nanos" + ANSI_RESET + ", miss " + ANSI_GREEN + results[1][1] + "nanos" + ANSI_RESET +
+                " | false positive rate " + ANSI_CYAN + String.format("%.4f", filter.getFalsePositiveRate()) + ANSI_RESET +
+                " (expected " + String.format("%.4f", filter.getExpectedFalsePositiveRate(data.size())) + ", " + filter.getSizeInBytes() / 1024 + "KB)");
+        writer.write(name + "," + data.size() + "," + results[0][0] + "," + results[0][1] + "," + results[1][0] + "," + results[1][1] + "," +
+                filter.getFalsePositiveRate() + "," + filter.getSizeInBytes() + "\n");
+    }
+
+    public void startScanMeasure(String name, HashTable table, List<Entry> data, FileWriter writer) throws IOException {
+        final int BATCH = 100;
+        // the first half is present when the scan starts, the second half is inserted and every other entry of the
+        // first half deleted while it runs, so the table grows under the cursor
+        int half = data.size() / 2;
+        table.insert(data.subList(0, half));
+
+        Set<String> seen = new HashSet<>();
+        long returned = 0;
+        long longest = 0;
+        long total = 0;
+        int next = half;
+        int deleted = 0;
+        int cursor = 0;
+        List<Entry> batch = new ArrayList<>();
+        do {
+            batch.clear();
+            long startTime = System.nanoTime();
+            if (table instanceof HashTableChaining) {
+                cursor = ((HashTableChaining) table).scan(cursor, BATCH, batch);
+            } else {
+                cursor = ((HashTableLinearProbing) table).scan(cursor, BATCH, batch);
+            }
+            long call = System.nanoTime() - startTime;
+            total += call;
+            longest = Math.max(longest, call);
+            returned += batch.size();
+            for (Entry e : batch) {
+                seen.add(e.getKey());
+            }
+
+            for (int i = 0; i < BATCH && next < data.size(); i++) {
+                table.insertValue(data.get(next++));
+            }
+            if (deleted < half) {
+                table.deleteValue(data.get(deleted));
+                deleted += 2;
+            }
+        } while (cursor != 0);
+
+        // entries of the first half that were never deleted were present during the whole scan and must be returned
+        int missed = 0;
+        for (int i = 0; i < half; i++) {
+            if ((i % 2 == 1 || i >= deleted) && !seen.contains(data.get(i).getKey())) {
+                missed++;
+            }
+        }
+
+        System.out.println("-> " + name + " " + ANSI_CYAN + data.size() + ANSI_RESET + " entries ==> " +
+                "returned " + ANSI_CYAN + returned + ANSI_RESET + " (" + (returned - seen.size()) + " duplicates)" +
+                " | missed " + (missed == 0 ? ANSI_GREEN : ANSI_RED) + missed + ANSI_RESET +
+                " | scan " + ANSI_YELLOW + total / 1_000_000 + "ms" + ANSI_RESET + ", longest call " + ANSI_YELLOW + longest / 1000 + "micros" + ANSI_RESET);
+        writer.write(name + "," + data.size() + "," + returned + "," + (returned - seen.size()) + "," + missed + "," + total + "," + longest + "\n");
+    }
+
+    // Building a table from random keys one insert at a time from capacity 10, against bulkLoad sized once from the
+    // key count, sequentially and with fork-join tasks. Every build is done twice and only the second one is reported.
+    public void startBulkLoadMeasure(String name, Supplier<HashTable> factory, int keys, FileWriter writer) throws IOException {
+        List<Entry> entries = new ArrayList<>(keys);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < keys; i++) {
+            char[] key = new char[10];
+            for (int j = 0; j < key.length; j++) {
+                key[j] = (char) random.nextInt('a', 'z' + 1);
+            }
+            entries.add(new Entry(new String(key), "bulk"));
+        }
+
+        long[] times = new long[3];
+        int[] grows = new int[3];
+        for (int variant = 0; variant < 3; variant++) {
+            for (int run = 0; run < 2; run++) {
+                HashTable table = factory.get();
+                long startTime = System.nanoTime();
+                if (variant == 0) {
+                    table.insert(entries);
+                } else if (table instanceof HashTableChaining) {
+                    ((HashTableChaining) table).bulkLoad(entries, variant == 2);
+                } else {
+                    ((HashTableLinearProbing) table).bulkLoad(entries, variant == 2);
+                }
+                times[variant] = (System.nanoTime() - startTime) / 1_000_000;
+                grows[variant] = (table instanceof HashTableChaining) ? ((HashTableChaining) table).getStats().getGrows()
+                        : ((HashTableLinearProbing) table).getStats().getGrows();
+            }
+        }
+
+        System.out.println("-> " + name + " " + ANSI_CYAN + keys + ANSI_RESET + " keys ==> " +
+                "insert: " + ANSI_RED + times[0] + "ms" + ANSI_RESET + " (" + grows[0] + " grows)" +
+                " | bulk load: " + ANSI_YELLOW + times[1] + "ms" + ANSI_RESET + " (" + grows[1] + " grows)" +
+                " | parallel bulk load: " + ANSI_GREEN + times[2] + "ms" + ANSI_RESET + " (" + grows[2] + " grows, " +
+                ForkJoinPool.getCommonPoolParallelism() + " workers)");
+        writer.write(name + "," + keys + "," + times[0] + "," + times[1] + "," + times[2] + "," + ForkJoinPool.getCommonPoolParallelism() + "\n");
+    }
+
+    // Heap per entry of the Entry based tables against HashTableArena, for random 10 char keys and values, 20 bytes of
+    // payload per entry. Entries are generated on the fly, so only the table and what it keeps is on the heap; a size
+    // whose estimated footprint does not fit into the maximum heap is skipped and written as -1.
+    public void startArenaMeasure(int[] sizes, FileWriter writer) throws IOException {
+        String[] names = {"HashTable Chaining", "HashTable Linear Probing", "HashTable Arena"};
+        long[] estimatedBytes = {220, 170, 60};
+        List<Supplier<HashTable>> factories = List.of(
+                () -> new HashTableChaining(10, 1.5f),
+                () -> new HashTableLinearProbing(10, 0.75f),
+                () -> new HashTableArena(10, 0.75f));
+
+        for (int n : sizes) {
+            long[] bytesPerEntry = new long[names.length];
+            for (int layout = 0; layout < names.length; layout++) {
+                if (n * estimatedBytes[layout] > Runtime.getRuntime().maxMemory()) {
+                    bytesPerEntry[layout] = -1;
+                    continue;
+                }
+                long before = usedHeap();
+                HashTable table = factories.get(layout).get();
+                Random random = new Random(n);
+                for (int i = 0; i < n; i++) {
+                    table.insertValue(new Entry(randomText(random, 10), randomText(random, 10)));
+                }
+                bytesPerEntry[layout] = (usedHeap() - before) / n;
+                // keeps the table reachable until its heap has been measured
+                table.searchValue(new Entry("", ""));
+            }
+
+            StringBuilder line = new StringBuilder("-> " + ANSI_CYAN + n + ANSI_RESET + " entries heap per entry ==> ");
+            for (int layout = 0; layout < names.length; layout++) {
+                String color = (layout == names.length - 1) ? ANSI_GREEN : ANSI_YELLOW;
+                line.append(layout == 0 ? "" : " | ").append(names[layout]).append(": ")
+                        .append(bytesPerEntry[layout] == -1 ? ANSI_RED + "heap too small" : color + bytesPerEntry[layout] + "B").append(ANSI_RESET);
+            }
+            System.out.println(line);
+            writer.write(n + "," + bytesPerEntry[0] + "," + bytesPerEntry[1] + "," + bytesPerEntry[2] + "\n");
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        char[] text = new char[length];
+        for (int j = 0; j < length; j++) {
+            text[j] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(text);
+    }
+
+    // Recursive against iterative AVL insert and delete on the same data: building the tree, searching every value and
+    // deleting every value. Every run is done twice and only the second one is reported, after the JIT.
+    public void startIterativeAvlMeasure(List<Integer> data, FileWriter writer) throws IOException {
+        long[][] results = new long[2][3];
+        for (int variant = 0; variant < 2; variant++) {
+            for (int run = 0; run < 2; run++) {
+                AVL avl = new AVL(variant == 0);
+                long startTime = System.nanoTime();
+                avl.insert(data);
+                results[variant][0] = (System.nanoTime() - startTime) / 1_000_000;
+                startTime = System.nanoTime();
+                avl.search(data);
+                results[variant][1] = (System.nanoTime() - startTime) / 1_000_000;
+                startTime = System.nanoTime();
+                avl.delete(data);
+                results[variant][2] = (System.nanoTime() - startTime) / 1_000_000;
+            }
+        }
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " values insert/search/delete ==> " +
+                "AVL recursive: " + ANSI_YELLOW + results[0][0] + "/" + results[0][1] + "/" + results[0][2] + "ms" + ANSI_RESET +
+                " | AVL iterative: " + ANSI_GREEN + results[1][0] + "/" + results[1][1] + "/" + results[1][2] + "ms" + ANSI_RESET);
+        writer.write(data.size() + "," + results[0][0] + "," + results[0][1] + "," + results[0][2] + "," +
+                results[1][0] + "," + results[1][1] + "," + results[1][2] + "\n");
+    }
+
+    // Heap per key and search time of the Node based AVL against PooledAVL, built from the same permutation. The pool
+    // is compacted after the inserts, which drops the spare room of the last doubling and lays the nodes out in
+    // depth-first order. Searches look every key up in the order of the dataset, twice, and only the second run is reported.
+    public void startPooledAvlMeasure(List<Integer> data, FileWriter writer) throws IOException {
+        long before = usedHeap();
+        AVL avl = new AVL();
+        avl.insert(data);
+        long avlBytes = usedHeap() - before;
+
+        before = usedHeap();
+        PooledAVL pooledAvl = new PooledAVL();
+        pooledAvl.insert(data);
+        pooledAvl.compact();
+        long pooledBytes = usedHeap() - before;
+
+        int[] keys = data.stream().mapToInt(Integer::intValue).toArray();
+        long avlSearch = 0;
+        long pooledSearch = 0;
+        for (int run = 0; run < 2; run++) {
+            long startTime = System.nanoTime();
+            for (int key : keys) {
+                avl.searchValue(key);
+            }
+            avlSearch = (System.nanoTime() - startTime) / keys.length;
+            startTime = System.nanoTime();
+            for (int key : keys) {
+                pooledAvl.searchValue(key);
+            }
+            pooledSearch = (System.nanoTime() - startTime) / keys.length;
+        }
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " values heap per value / search ==> " +
+                "AVL: " + ANSI_YELLOW + avlBytes / data.size() + "B/" + avlSearch + "nanos" + ANSI_RESET +
+                " | Pooled AVL: " + ANSI_GREEN + pooledBytes / data.size() + "B/" + pooledSearch + "nanos" + ANSI_RESET);
+        writer.write(data.size() + "," + avlBytes / data.size() + "," + avlSearch + "," + pooledBytes / data.size() + "," + pooledSearch + "\n");
+    }
+
+    // rank, select and countInRange of the size augmented AVL against an in-order traversal of the same tree from its
+    // smallest value, which is all there was before. Both answer the same random queries; the traversal stops as soon
+    // as it has its answer, select after k steps.
+    public void startOrderStatisticMeasure(List<Integer> data, FileWriter writer) throws IOException {
+        int queries = 1000;
+        AVL avl = new AVL();
+        avl.insert(data);
+        int maxValue = data.stream().mapToInt(Integer::intValue).max().orElse(0);
+        Random random = new Random(data.size());
+        int[] values = new int[queries];
+        int[] ks = new int[queries];
+        int[] highs = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            values[q] = data.get(random.nextInt(data.size()));
+            ks[q] = random.nextInt(avl.getSize());
+            highs[q] = values[q] + random.nextInt(Math.max(1, maxValue - values[q] + 1));
+        }
+
+        // nanos per query for rank, select and countInRange, order statistics then traversal
+        long[][] results = new long[2][3];
+        long checksum = 0;
+        for (int run = 0; run < 2; run++) {
+            long startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                checksum += avl.rank(values[q]);
+            }
+            results[0][0] = (System.nanoTime() - startTime) / queries;
+            startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                checksum += avl.select(ks[q]);
+            }
+            results[0][1] = (System.nanoTime() - startTime) / queries;
+            startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                checksum += avl.countInRange(values[q], highs[q]);
+            }
+            results[0][2] = (System.nanoTime() - startTime) / queries;
+
+            startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                PrimitiveIterator.OfInt inOrder = avl.range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                int count = 0;
+                while (inOrder.hasNext() && inOrder.nextInt() < values[q]) {
+                    count++;
+                }
+                checksum -= count;
+            }
+            results[1][0] = (System.nanoTime() - startTime) / queries;
+            startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                PrimitiveIterator.OfInt inOrder = avl.range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                for (int step = 0; step < ks[q]; step++) {
+                    inOrder.nextInt();
+                }
+                checksum -= inOrder.nextInt();
+            }
+            results[1][1] = (System.nanoTime() - startTime) / queries;
+            startTime = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                PrimitiveIterator.OfInt inOrder = avl.range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+                int count = 0;
+                while (inOrder.hasNext()) {
+                    int value = inOrder.nextInt();
+                    if (value > highs[q]) {
+                        break;
+                    }
+                    if (value >= values[q]) {
+                        count++;
+                    }
+                }
+                checksum -= count;
+            }
+            results[1][2] = (System.nanoTime() - startTime) / queries;
+        }
+        if (checksum != 0) {
+            System.out.println(ANSI_RED + "Order statistics of the AVL differ from the traversal" + ANSI_RESET);
+        }
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " values rank/select/countInRange ==> " +
+                "AVL: " + ANSI_GREEN + results[0][0] + "/" + results[0][1] + "/" + results[0][2] + "nanos" + ANSI_RESET +
+                " | In-order traversal: " + ANSI_YELLOW + results[1][0] + "/" + results[1][1] + "/" + results[1][2] + "nanos" + ANSI_RESET);
+        writer.write(data.size() + "," + results[0][0] + "," + results[0][1] + "," + results[0][2] + "," +
+                results[1][0] + "," + results[1][1] + "," + results[1][2] + "\n");
+    }
+
+    // Time to build an AVL from the dataset: createAvl, which inserts value by value, against bulkLoad of the same
+    // unsorted values, sequential and in parallel, and bulkLoad of them already sorted. Every build is done twice and
+    // only the second one is reported, after the JIT.
+    public void startBulkBuildAvlMeasure(List<Integer> data, FileWriter writer) throws IOException {
+        List<Integer> sorted = new ArrayList<>(data);
+        Collections.sort(sorted);
+        long[] results = new long[4];
+        for (int run = 0; run < 2; run++) {
+            long startTime = System.nanoTime();
+            createAvl(data, new AVL());
+            results[0] = (System.nanoTime() - startTime) / 1_000_000;
+            startTime = System.nanoTime();
+            new AVL().bulkLoad(data);
+            results[1] = (System.nanoTime() - startTime) / 1_000_000;
+            startTime = System.nanoTime();
+            new AVL().bulkLoad(data, true);
+            results[2] = (System.nanoTime() - startTime) / 1_000_000;
+            startTime = System.nanoTime();
+            new AVL().bulkLoad(sorted);
+            results[3] = (System.nanoTime() - startTime) / 1_000_000;
+        }
+
+        System.out.println("-> " + ANSI_CYAN + data.size() + ANSI_RESET + " values build time ==> " +
+                "createAvl: " + ANSI_YELLOW + results[0] + "ms" + ANSI_RESET +
+                " | bulkLoad: " + ANSI_GREEN + results[1] + "ms" + ANSI_RESET +
+                " | bulkLoad parallel: " + ANSI_GREEN + results[2] + "ms" + ANSI_RESET +
+                " | bulkLoad sorted: " + ANSI_GREEN + results[3] + "ms" + ANSI_RESET +
+                " (" + ForkJoinPool.getCommonPoolParallelism() + " workers)");
+        writer.write(data.size() + "," + results[0] + "," + results[1] + "," + results[2] + "," + results[3] + "," +
+                ForkJoinPool.getCommonPoolParallelism() + "\n");
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // average nanos per successful and per unsuccessful search
+    private long[] measureHitAndMiss(HashTable table, List<Entry> present, List<Entry> missing) {
+        long hitStart = System.nanoTime();
+        table.search(present);
+        long hitEnd = System.nanoTime();
+
+        long missStart = System.nanoTime();
+        table.search(missing);
+        long missEnd = System.nanoTime();
+
+        return new long[]{(hitEnd - hitStart) / present.size(), (missEnd - missStart) / missing.size()};
+    }
+
     private void printAvlMeasure(int dataSize, int i, boolean nanos) {
         System.out.println("-> dataset " + (i + 1) + "(" + ANSI_CYAN + (dataSize) + ANSI_RESET + ")" + " AVL total time: " + ANSI_CYAN + (totalInsertTime + totalSearchTime + totalDeleteTime) + ((nanos) ? "nanos" : "ms") + ANSI_RESET);
         System.out.println("\tAVL insert ==> " +
@@ -889,7 +1954,7 @@ public class Measure {
         String type = scanner.next();
         switch (type) {
             case "b" -> {
-                System.out.print("Full test => f | Single test => s | Single full test => sf >> ");
+                System.out.print("Full test => f | Single test => s | Single full test => sf | Iterative AVL test => it | Pooled AVL test => pa | Order statistic test => os | Bulk build test => bb >> ");
                 String testType = scanner.next();
 
                 if (testType.equals("f")) {
@@ -961,6 +2026,66 @@ public class Measure {
                         System.out.println("An error occurred.");
                         e.printStackTrace();
                     }
+                } else if (testType.equals("pa")) {
+                    System.out.print("Dataset size: " + ANSI_CYAN + btDataset.size() + ANSI_RESET + ", interval >> ");
+                    int interval = scanner.nextInt();
+
+                    try {
+                        FileWriter pooledWriter = new FileWriter("avlPooledMeasure.csv");
+                        for (int i = 0; i < btDataset.size() / interval; i++) {
+                            measure.startPooledAvlMeasure(btDataset.subList(0, interval * (i + 1)), pooledWriter);
+                        }
+                        pooledWriter.close();
+                        System.out.println("Successfully wrote to the file avlPooledMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("os")) {
+                    System.out.print("Dataset size: " + ANSI_CYAN + btDataset.size() + ANSI_RESET + ", interval >> ");
+                    int interval = scanner.nextInt();
+
+                    try {
+                        FileWriter orderWriter = new FileWriter("avlOrderStatisticMeasure.csv");
+                        for (int i = 0; i < btDataset.size() / interval; i++) {
+                            measure.startOrderStatisticMeasure(btDataset.subList(0, interval * (i + 1)), orderWriter);
+                        }
+                        orderWriter.close();
+                        System.out.println("Successfully wrote to the file avlOrderStatisticMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("bb")) {
+                    System.out.print("Dataset size: " + ANSI_CYAN + btDataset.size() + ANSI_RESET + ", interval >> ");
+                    int interval = scanner.nextInt();
+
+                    try {
+                        FileWriter bulkWriter = new FileWriter("avlBulkBuildMeasure.csv");
+                        for (int i = 0; i < btDataset.size() / interval; i++) {
+                            measure.startBulkBuildAvlMeasure(btDataset.subList(0, interval * (i + 1)), bulkWriter);
+                        }
+                        bulkWriter.close();
+                        System.out.println("Successfully wrote to the file avlBulkBuildMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("it")) {
+                    System.out.print("Dataset size: " + ANSI_CYAN + btDataset.size() + ANSI_RESET + ", interval >> ");
+                    int interval = scanner.nextInt();
+
+                    try {
+                        FileWriter iterativeWriter = new FileWriter("avlIterativeMeasure.csv");
+                        for (int i = 0; i < btDataset.size() / interval; i++) {
+                            measure.startIterativeAvlMeasure(btDataset.subList(0, interval * (i + 1)), iterativeWriter);
+                        }
+                        iterativeWriter.close();
+                        System.out.println("Successfully wrote to the file avlIterativeMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
                 } else {
                     System.out.print("How many datasets to create from btDataset.txt >> ");
                     int count = scanner.nextInt();
@@ -1029,7 +2154,7 @@ public class Measure {
                 }
             }
             case "h" -> {
-                System.out.print("Full test => f | Single test => s | Single full test => sf >> ");
+                System.out.print("Full test => f | Single test => s | Single full test => sf | Robin Hood churn test => rh | Resize latency test => ir | Concurrent throughput test => c | Load factor test => lf | Search latency test => tl | Packed keys test => pk | Byte key lookup test => kb | Collision flood test => cf | Hash strategy test => hs | Purge test => pg | Batch lookup test => bl | Snapshot test => ms | Durability test => wl | Cache test => ca | Expiry test => ex | Negative lookup filter test => bf | Scan test => sc | Bulk load test => bk | Arena test => ar >> ");
                 String testType = scanner.next();
 
                 if (testType.equals("f")) {
@@ -1103,6 +2228,264 @@ public class Measure {
                         System.out.println("An error occurred.");
                         e.printStackTrace();
                     }
+                } else if (testType.equals("rh")) {
+                    System.out.print("Live entries kept in the table, max size: " + ANSI_CYAN + (htDataset.size() - 1) + ANSI_RESET + " >> ");
+                    int liveSize = scanner.nextInt();
+                    System.out.print("How many delete/insert cycles to do >> ");
+                    int cycles = scanner.nextInt();
+
+                    try {
+                        FileWriter churnWriter = new FileWriter("htChurnMeasure.csv");
+                        measure.startChurnMeasureHTL(htDataset, new HashTableLinearProbing(10, 0.75f), liveSize, cycles, churnWriter);
+                        measure.startChurnMeasureHTL(htDataset, new HashTableLinearProbing(10, 0.75f, true), liveSize, cycles, churnWriter);
+                        churnWriter.close();
+                        System.out.println("Successfully wrote to the file htChurnMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("ir")) {
+                    try {
+                        FileWriter latencyWriter = new FileWriter("htResizeLatencyMeasure.csv");
+
+                        HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+                        measure.startLatencyMeasure("HashTable Chaining", "insert", htDataset, tableChaining::insertValue, latencyWriter);
+                        HashTableChaining incrementalChaining = new HashTableChaining(10, 1.5f);
+                        incrementalChaining.setIncrementalResize(true);
+                        measure.startLatencyMeasure("HashTable Chaining incremental", "insert", htDataset, incrementalChaining::insertValue, latencyWriter);
+
+                        HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+                        measure.startLatencyMeasure("HashTable Linear Probing", "insert", htDataset, tableLinearProbing::insertValue, latencyWriter);
+                        HashTableLinearProbing incrementalLinearProbing = new HashTableLinearProbing(10, 0.75f);
+                        incrementalLinearProbing.setIncrementalResize(true);
+                        measure.startLatencyMeasure("HashTable Linear Probing incremental", "insert", htDataset, incrementalLinearProbing::insertValue, latencyWriter);
+
+                        latencyWriter.close();
+                        System.out.println("Successfully wrote to the file htResizeLatencyMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("c")) {
+                    System.out.print("Operations per thread >> ");
+                    int operations = scanner.nextInt();
+                    int maxThreads = Runtime.getRuntime().availableProcessors();
+
+                    try {
+                        FileWriter concurrentWriter = new FileWriter("htConcurrentMeasure.csv");
+                        for (int threads = 1; threads <= maxThreads; threads++) {
+                            double synchronizedOps = measure.startThroughputMeasure(new SynchronizedHashTable(new HashTableChaining(10, 1.5f)), htDataset, threads, operations);
+                            double stripedOps = measure.startThroughputMeasure(new ConcurrentHashTableChaining(10, 1.5f), htDataset, threads, operations);
+                            double synchronizedProbingOps = measure.startThroughputMeasure(new SynchronizedHashTable(new HashTableLinearProbing(10, 0.75f)), htDataset, threads, operations);
+                            double lockFreeOps = measure.startThroughputMeasure(new ConcurrentHashTableLinearProbing(10, 0.75f), htDataset, threads, operations);
+                            System.out.println("-> " + ANSI_CYAN + threads + ANSI_RESET + " threads ==> " +
+                                    "synchronized HashTable Chaining: " + ANSI_YELLOW + String.format("%.0f", synchronizedOps) + " ops/s" + ANSI_RESET +
+                                    " | Concurrent HashTable Chaining: " + ANSI_GREEN + String.format("%.0f", stripedOps) + " ops/s" + ANSI_RESET +
+                                    " | synchronized HashTable Linear Probing: " + ANSI_YELLOW + String.format("%.0f", synchronizedProbingOps) + " ops/s" + ANSI_RESET +
+                                    " | Concurrent HashTable Linear Probing: " + ANSI_GREEN + String.format("%.0f", lockFreeOps) + " ops/s" + ANSI_RESET);
+                            concurrentWriter.write(threads + "," + synchronizedOps + "," + stripedOps + "," + synchronizedProbingOps + "," + lockFreeOps + "\n");
+                        }
+                        concurrentWriter.close();
+                        System.out.println("Successfully wrote to the file htConcurrentMeasure.csv");
+                    } catch (IOException | InterruptedException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("lf")) {
+                    try {
+                        FileWriter loadFactorWriter = new FileWriter("htLoadFactorMeasure.csv");
+                        measure.startLoadFactorMeasure(htDataset, loadFactorWriter);
+                        loadFactorWriter.close();
+                        System.out.println("Successfully wrote to the file htLoadFactorMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("pk")) {
+                    try {
+                        FileWriter packedKeysWriter = new FileWriter("htPackedKeysMeasure.csv");
+                        measure.startPackedKeysMeasure(htDataset, packedKeysWriter);
+                        packedKeysWriter.close();
+                        System.out.println("Successfully wrote to the file htPackedKeysMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("kb")) {
+                    try {
+                        FileWriter byteKeyWriter = new FileWriter("htByteKeyMeasure.csv");
+                        measure.startByteKeyMeasure(htDataset, byteKeyWriter);
+                        byteKeyWriter.close();
+                        System.out.println("Successfully wrote to the file htByteKeyMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("cf")) {
+                    try {
+                        FileWriter floodWriter = new FileWriter("htCollisionFloodMeasure.csv");
+                        measure.startCollisionFloodMeasure(floodWriter);
+                        floodWriter.close();
+                        System.out.println("Successfully wrote to the file htCollisionFloodMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("hs")) {
+                    try {
+                        FileWriter strategyWriter = new FileWriter("htHashStrategyMeasure.csv");
+                        measure.startHashStrategyMeasure(htDataset, strategyWriter);
+                        strategyWriter.close();
+                        System.out.println("Successfully wrote to the file htHashStrategyMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("pg")) {
+                    try {
+                        FileWriter purgeWriter = new FileWriter("htPurgeMeasure.csv");
+                        measure.startPurgeMeasure(htDataset, purgeWriter);
+                        purgeWriter.close();
+                        System.out.println("Successfully wrote to the file htPurgeMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("bl")) {
+                    System.out.print("Amount of random keys in the tables >> ");
+                    int keys = scanner.nextInt();
+
+                    try {
+                        FileWriter batchWriter = new FileWriter("htBatchLookupMeasure.csv");
+                        measure.startBatchLookupMeasure(keys, batchWriter);
+                        batchWriter.close();
+                        System.out.println("Successfully wrote to the file htBatchLookupMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("ms")) {
+                    try {
+                        FileWriter snapshotWriter = new FileWriter("htSnapshotMeasure.csv");
+                        measure.startSnapshotMeasure(htDataset, snapshotWriter);
+                        snapshotWriter.close();
+                        System.out.println("Successfully wrote to the file htSnapshotMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("wl")) {
+                    System.out.print("Mutations per thread >> ");
+                    int operations = scanner.nextInt();
+
+                    try {
+                        FileWriter durabilityWriter = new FileWriter("htDurabilityMeasure.csv");
+                        for (int threads = 1; threads <= 16; threads *= 4) {
+                            measure.startDurabilityMeasure(htDataset, threads, operations, durabilityWriter);
+                        }
+                        durabilityWriter.close();
+                        System.out.println("Successfully wrote to the file htDurabilityMeasure.csv");
+                    } catch (IOException | InterruptedException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("ca")) {
+                    try {
+                        FileWriter cacheWriter = new FileWriter("htCacheMeasure.csv");
+                        for (int percent : new int[]{1, 5, 10}) {
+                            measure.startCacheMeasure(htDataset, htDataset.size() * percent / 100, cacheWriter);
+                        }
+                        cacheWriter.close();
+                        System.out.println("Successfully wrote to the file htCacheMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("ex")) {
+                    try {
+                        FileWriter expiryWriter = new FileWriter("htExpiryMeasure.csv");
+                        measure.startExpiryMeasure("HashTable Chaining", () -> new HashTableChaining(10, 1.5f), htDataset, expiryWriter);
+                        measure.startExpiryMeasure("HashTable Linear Probing", () -> new HashTableLinearProbing(10, 0.75f), htDataset, expiryWriter);
+                        expiryWriter.close();
+                        System.out.println("Successfully wrote to the file htExpiryMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("bf")) {
+                    try {
+                        FileWriter filterWriter = new FileWriter("htFilterMeasure.csv");
+                        measure.startFilterMeasure("HashTable Chaining", () -> new HashTableChaining(10, 1.5f), htDataset, filterWriter);
+                        measure.startFilterMeasure("HashTable Linear Probing", () -> new HashTableLinearProbing(10, 0.75f), htDataset, filterWriter);
+                        measure.startFilterMeasure("HashTable Linear Probing 0.9", () -> new HashTableLinearProbing(10, 0.9f), htDataset, filterWriter);
+                        filterWriter.close();
+                        System.out.println("Successfully wrote to the file htFilterMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("sc")) {
+                    try {
+                        FileWriter scanWriter = new FileWriter("htScanMeasure.csv");
+                        HashTableChaining incrementalChaining = new HashTableChaining(10, 1.5f);
+                        incrementalChaining.setIncrementalResize(true);
+                        HashTableLinearProbing incrementalLinearProbing = new HashTableLinearProbing(10, 0.75f);
+                        incrementalLinearProbing.setIncrementalResize(true);
+                        measure.startScanMeasure("HashTable Chaining", new HashTableChaining(10, 1.5f), htDataset, scanWriter);
+                        measure.startScanMeasure("HashTable Chaining incremental", incrementalChaining, htDataset, scanWriter);
+                        measure.startScanMeasure("HashTable Linear Probing", new HashTableLinearProbing(10, 0.75f), htDataset, scanWriter);
+                        measure.startScanMeasure("HashTable Linear Probing incremental", incrementalLinearProbing, htDataset, scanWriter);
+                        measure.startScanMeasure("HashTable Robin Hood", new HashTableLinearProbing(10, 0.75f, true), htDataset, scanWriter);
+                        scanWriter.close();
+                        System.out.println("Successfully wrote to the file htScanMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("bk")) {
+                    System.out.print("Amount of random keys in the tables >> ");
+                    int keys = scanner.nextInt();
+
+                    try {
+                        FileWriter bulkWriter = new FileWriter("htBulkLoadMeasure.csv");
+                        measure.startBulkLoadMeasure("HashTable Chaining", () -> new HashTableChaining(10, 1.5f), keys, bulkWriter);
+                        measure.startBulkLoadMeasure("HashTable Linear Probing", () -> new HashTableLinearProbing(10, 0.75f), keys, bulkWriter);
+                        measure.startBulkLoadMeasure("HashTable Robin Hood", () -> new HashTableLinearProbing(10, 0.75f, true), keys, bulkWriter);
+                        bulkWriter.close();
+                        System.out.println("Successfully wrote to the file htBulkLoadMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("ar")) {
+                    try {
+                        FileWriter arenaWriter = new FileWriter("htArenaMeasure.csv");
+                        measure.startArenaMeasure(new int[]{1_000_000, 10_000_000, 100_000_000}, arenaWriter);
+                        arenaWriter.close();
+                        System.out.println("Successfully wrote to the file htArenaMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
+                } else if (testType.equals("tl")) {
+                    HashTableChaining tableChaining = new HashTableChaining(10, 1.5f);
+                    HashTableLinearProbing tableLinearProbing = new HashTableLinearProbing(10, 0.75f);
+                    HashTableCuckoo tableCuckoo = new HashTableCuckoo(10, 0.9f);
+                    tableChaining.insert(htDataset);
+                    tableLinearProbing.insert(htDataset);
+                    tableCuckoo.insert(htDataset);
+
+                    try {
+                        FileWriter latencyWriter = new FileWriter("htSearchLatencyMeasure.csv");
+                        measure.startLatencyMeasure("HashTable Chaining", "search", htDataset, tableChaining::searchValue, latencyWriter);
+                        measure.startLatencyMeasure("HashTable Linear Probing", "search", htDataset, tableLinearProbing::searchValue, latencyWriter);
+                        measure.startLatencyMeasure("HashTable Cuckoo", "search", htDataset, tableCuckoo::searchValue, latencyWriter);
+                        latencyWriter.close();
+                        System.out.println("Successfully wrote to the file htSearchLatencyMeasure.csv");
+                    } catch (IOException e) {
+                        System.out.println("An error occurred.");
+                        e.printStackTrace();
+                    }
                 } else {
                     System.out.print("How many datasets to create from htDataset.txt >> ");
                     int count = scanner.nextInt();
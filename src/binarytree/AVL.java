@@ -1,6 +1,11 @@
 package binarytree;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class AVL {
     private static class Node {
@@ -8,27 +13,220 @@ public class AVL {
         Node left;
         Node right;
         int height;
+        // number of nodes in the subtree, this one included
+        int size;
 
         public Node(int data) {
             this.data = data;
             this.left = null;
             this.right = null;
             this.height = 1;
+            this.size = 1;
         }
     }
 
+    // Ascending cursor over the values in [lo, hi]. The stack holds the nodes still to be returned whose left subtree
+    // is done, smallest on top; a step pops one and pushes the left spine of its right subtree. Every node is pushed
+    // and popped once, so a step is amortized O(1), and nothing is allocated after the cursor itself. Changing the
+    // tree while a cursor is open leaves it pointing at nodes that may have been rotated away.
+    private static class RangeCursor implements PrimitiveIterator.OfInt {
+        private final Node[] stack = new Node[MAX_HEIGHT];
+        private int top;
+        private final int hi;
+
+        RangeCursor(Node root, int lo, int hi) {
+            this.hi = hi;
+            // the nodes where the search for lo goes left are the ones >= lo, pushed from the largest down
+            Node actualNode = root;
+            while (actualNode != null) {
+                if (actualNode.data >= lo) {
+                    stack[top++] = actualNode;
+                    actualNode = actualNode.left;
+                } else {
+                    actualNode = actualNode.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0 && stack[top - 1].data <= hi;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node actualNode = stack[--top];
+            for (Node n = actualNode.right; n != null; n = n.left) {
+                stack[top++] = n;
+            }
+            return actualNode.data;
+        }
+    }
+
+    // Builds the subtree of values[from, to) with the middle value as its root. The two halves differ by at most one
+    // value, so every subtree is perfectly balanced and a valid AVL tree. Halves above the threshold are built by
+    // their own fork-join tasks.
+    private static class BuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        // below this many values forking costs more than building the subtree
+        private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+
+        BuildTask(int[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return build(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(values, from, middle);
+            left.fork();
+            Node right = new BuildTask(values, middle + 1, to).compute();
+            return linkNode(values[middle], left.join(), right);
+        }
+    }
+
+    // an AVL tree of height h holds at least fib(h + 2) - 1 nodes, so even 2^32 distinct int keys stay below 47 levels
+    private static final int MAX_HEIGHT = 64;
+
     private Node root;
+    // the recursive insert and delete are only kept to compare them against the iterative ones
+    private final boolean recursive;
+    // nodes from the root down to the one being changed, reused by every iterative insert and delete
+    private final Node[] path = new Node[MAX_HEIGHT];
 
     public AVL() {
+        this(false);
+    }
+
+    public AVL(boolean recursive) {
         this.root = null;
+        this.recursive = recursive;
     }
 
     public void insert(List<Integer> data) {
         for (int d : data) {
-            root = insertNode(root, new Node(d));
+            insertValue(d);
         }
     }
 
+    // Walks down once recording the path, links the new node and then rebalances back up the path. An insert changes
+    // the height of at most the nodes up to the first rotation, and ancestors only depend on the height of a subtree,
+    // so the walk stops at the first subtree whose height is the same as before.
+    private void insertIterative(int data) {
+        int depth = 0;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (data == actualNode.data) {
+                return;
+            }
+            path[depth++] = actualNode;
+            actualNode = (data < actualNode.data) ? actualNode.left : actualNode.right;
+        }
+
+        Node insertNode = new Node(data);
+        if (depth == 0) {
+            root = insertNode;
+            return;
+        }
+        if (data < path[depth - 1].data) {
+            path[depth - 1].left = insertNode;
+        } else {
+            path[depth - 1].right = insertNode;
+        }
+        rebalancePath(depth);
+    }
+
+    // Same tree as deleteNode: a node with two children takes the data of its successor, which is unlinked instead.
+    private boolean deleteIterative(int data) {
+        int depth = 0;
+        Node actualNode = root;
+        while (actualNode != null && actualNode.data != data) {
+            path[depth++] = actualNode;
+            actualNode = (data < actualNode.data) ? actualNode.left : actualNode.right;
+        }
+        if (actualNode == null) {
+            return false;
+        }
+
+        if (actualNode.left != null && actualNode.right != null) {
+            Node target = actualNode;
+            path[depth++] = actualNode;
+            actualNode = actualNode.right;
+            while (actualNode.left != null) {
+                path[depth++] = actualNode;
+                actualNode = actualNode.left;
+            }
+            target.data = actualNode.data;
+        }
+        replaceChild(depth, actualNode, (actualNode.left != null) ? actualNode.left : actualNode.right);
+        rebalancePath(depth);
+        return true;
+    }
+
+    // Rebalances path[depth - 1] up to the root, stopping once a subtree has kept its height. The ancestors above it
+    // need no rotation, but each of them still gained or lost a node, so their sizes are updated up to the root.
+    private void rebalancePath(int depth) {
+        while (depth > 0) {
+            Node actualNode = path[--depth];
+            int oldHeight = actualNode.height;
+            Node balanced = rebalance(actualNode);
+            if (balanced != actualNode) {
+                replaceChild(depth, actualNode, balanced);
+            }
+            if (balanced.height == oldHeight) {
+                break;
+            }
+        }
+        while (depth > 0) {
+            updateSize(path[--depth]);
+        }
+    }
+
+    // puts newChild where oldChild hangs below path[depth - 1], or at the root
+    private void replaceChild(int depth, Node oldChild, Node newChild) {
+        if (depth == 0) {
+            root = newChild;
+        } else if (path[depth - 1].left == oldChild) {
+            path[depth - 1].left = newChild;
+        } else {
+            path[depth - 1].right = newChild;
+        }
+    }
+
+    // the rotations of insertNode and deleteNode, picked by the balance factor of the heavier child
+    private Node rebalance(Node actualNode) {
+        actualNode.height = Math.max(getAppropriateHeight(actualNode.left), getAppropriateHeight(actualNode.right)) + 1;
+        updateSize(actualNode);
+        int balanceFactor = getBalanceFactor(actualNode);
+
+        if (balanceFactor > 1) {
+            if (getBalanceFactor(actualNode.left) < 0) {
+                actualNode.left = leftRotate(actualNode.left);
+            }
+            return rightRotate(actualNode);
+        }
+        if (balanceFactor < -1) {
+            if (getBalanceFactor(actualNode.right) > 0) {
+                actualNode.right = rightRotate(actualNode.right);
+            }
+            return leftRotate(actualNode);
+        }
+        return actualNode;
+    }
+
     private Node insertNode(Node actualNode, Node insertNode) {
         if (actualNode == null)
             return insertNode;
@@ -42,6 +240,7 @@ public class AVL {
         }
 
         actualNode.height = 1 + Math.max(getAppropriateHeight(actualNode.left), getAppropriateHeight(actualNode.right));
+        updateSize(actualNode);
 
         int balanceFactor = getBalanceFactor(actualNode);
 
@@ -72,6 +271,8 @@ public class AVL {
         actualNode.left = help2;
         actualNode.height = Math.max(getAppropriateHeight(actualNode.left), getAppropriateHeight(actualNode.right)) + 1;
         help1.height = Math.max(getAppropriateHeight(help1.left), getAppropriateHeight(help1.right)) + 1;
+        updateSize(actualNode);
+        updateSize(help1);
         return help1;
     }
 
@@ -82,6 +283,8 @@ public class AVL {
         actualNode.right = help2;
         actualNode.height = Math.max(getAppropriateHeight(actualNode.left), getAppropriateHeight(actualNode.right)) + 1;
         help1.height = Math.max(getAppropriateHeight(help1.left), getAppropriateHeight(help1.right)) + 1;
+        updateSize(actualNode);
+        updateSize(help1);
         return help1;
     }
 
@@ -113,7 +316,7 @@ public class AVL {
 
     public void delete(List<Integer> data) {
         for (int d : data) {
-            root = deleteNode(getRoot(), d);
+            deleteValue(d);
         }
     }
 
@@ -145,6 +348,7 @@ public class AVL {
             return null;
 
         actualNode.height = Math.max(getAppropriateHeight(actualNode.left), getAppropriateHeight(actualNode.right)) + 1;
+        updateSize(actualNode);
 
         int balanceFactor = getBalanceFactor(actualNode);
 
@@ -180,6 +384,16 @@ public class AVL {
         return node.height;
     }
 
+    private int getAppropriateSize(Node node) {
+        if (node == null)
+            return 0;
+        return node.size;
+    }
+
+    private void updateSize(Node node) {
+        node.size = getAppropriateSize(node.left) + getAppropriateSize(node.right) + 1;
+    }
+
     private Node minimum(Node actualNode) {
         while (actualNode.left != null) {
             actualNode = actualNode.left;
@@ -188,7 +402,11 @@ public class AVL {
     }
 
     public void insertValue(int value) {
-        this.root = insertNode(getRoot(), new Node(value));
+        if (recursive) {
+            this.root = insertNode(getRoot(), new Node(value));
+        } else {
+            insertIterative(value);
+        }
     }
 
     public boolean searchValue(int value) {
@@ -196,8 +414,196 @@ public class AVL {
     }
 
     public boolean deleteValue(int value) {
+        if (!recursive) {
+            return deleteIterative(value);
+        }
+        boolean found = searchNode(value);
         root = deleteNode(getRoot(), value);
-        return false;
+        return found;
+    }
+
+    public void bulkLoad(List<Integer> data) {
+        bulkLoad(data, false);
+    }
+
+    // Adds all values in O(n) once they are sorted, instead of n inserts with their rotations. Unsorted input is sorted
+    // first, so that case costs O(n log n) like the inserts but without touching the tree. The values already in the
+    // tree are merged in, duplicates are dropped like insertValue does, and the whole tree is rebuilt perfectly
+    // balanced with correct heights and sizes. In parallel the sort and the two halves of every large subtree run
+    // in the common fork-join pool.
+    public void bulkLoad(List<Integer> data, boolean parallel) {
+        int[] values = new int[data.size()];
+        int n = 0;
+        boolean sorted = true;
+        for (int d : data) {
+            if (n > 0 && d < values[n - 1]) {
+                sorted = false;
+            }
+            values[n++] = d;
+        }
+        if (!sorted) {
+            if (parallel) {
+                Arrays.parallelSort(values);
+            } else {
+                Arrays.sort(values);
+            }
+        }
+        values = merge(toSortedArray(), distinct(values));
+
+        if (parallel && values.length > BuildTask.SEQUENTIAL_THRESHOLD) {
+            root = ForkJoinPool.commonPool().invoke(new BuildTask(values, 0, values.length));
+        } else {
+            root = build(values, 0, values.length);
+        }
+    }
+
+    private static Node build(int[] values, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return linkNode(values[middle], build(values, from, middle), build(values, middle + 1, to));
+    }
+
+    private static Node linkNode(int data, Node left, Node right) {
+        Node node = new Node(data);
+        node.left = left;
+        node.right = right;
+        node.height = Math.max((left == null) ? 0 : left.height, (right == null) ? 0 : right.height) + 1;
+        node.size = ((left == null) ? 0 : left.size) + ((right == null) ? 0 : right.size) + 1;
+        return node;
+    }
+
+    // sorted values without repeats, compacted in place
+    private static int[] distinct(int[] sorted) {
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return (n == sorted.length) ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                merged[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                merged[n++] = b[j++];
+            } else {
+                merged[n++] = a[i++];
+                j++;
+            }
+        }
+        return (n == merged.length) ? merged : Arrays.copyOf(merged, n);
+    }
+
+    private int[] toSortedArray() {
+        int[] values = new int[getSize()];
+        PrimitiveIterator.OfInt cursor = range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cursor.nextInt();
+        }
+        return values;
+    }
+
+    // number of values smaller than value, whether value is in the tree or not
+    public int rank(int value) {
+        return countBelow(value, false);
+    }
+
+    // the value with k smaller values in the tree, so select(rank(v)) == v for every v in the tree
+    public int select(int k) {
+        if (k < 0 || k >= getSize()) {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + getSize());
+        }
+        Node actualNode = root;
+        while (true) {
+            int leftSize = getAppropriateSize(actualNode.left);
+            if (k < leftSize) {
+                actualNode = actualNode.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                actualNode = actualNode.right;
+            } else {
+                return actualNode.data;
+            }
+        }
+    }
+
+    // number of values v with lo <= v <= hi
+    public int countInRange(int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
+
+    // One walk from the root: every time it goes right, the left subtree and the node itself are below value.
+    // Counting the values <= hi this way avoids rank(hi + 1), which would overflow for Integer.MAX_VALUE.
+    private int countBelow(int value, boolean inclusive) {
+        int count = 0;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (value < actualNode.data || (value == actualNode.data && !inclusive)) {
+                actualNode = actualNode.left;
+            } else {
+                count += getAppropriateSize(actualNode.left) + 1;
+                actualNode = actualNode.right;
+            }
+        }
+        return count;
+    }
+
+    public int getSize() {
+        return getAppropriateSize(root);
+    }
+
+    // values in [lo, hi] in ascending order, nextInt() and forEachRemaining(IntConsumer) avoid boxing
+    public PrimitiveIterator.OfInt range(int lo, int hi) {
+        return new RangeCursor(root, lo, hi);
+    }
+
+    // the smallest value >= value, null when there is none
+    public Integer ceiling(int value) {
+        Node found = null;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (actualNode.data >= value) {
+                found = actualNode;
+                actualNode = actualNode.left;
+            } else {
+                actualNode = actualNode.right;
+            }
+        }
+        return (found == null) ? null : found.data;
+    }
+
+    // the largest value <= value, null when there is none
+    public Integer floor(int value) {
+        Node found = null;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (actualNode.data <= value) {
+                found = actualNode;
+                actualNode = actualNode.right;
+            } else {
+                actualNode = actualNode.left;
+            }
+        }
+        return (found == null) ? null : found.data;
+    }
+
+    public boolean isRecursive() {
+        return recursive;
     }
 
     public void traverseInOrder(Node node) {
@@ -0,0 +1,308 @@
+package binarytree;
+
+import java.util.Arrays;
+import java.util.List;
+
+// AVL tree without a Node object per key: every node is four ints in one pooled int array, its key, the links to its
+// children and its height, and a link is the index of the child's first int. Parallel key, left, right and height
+// arrays would cost a cache miss in each of them on every level of a search, interleaved they share one cache line.
+// Node 0 is the empty subtree with height 0, so no link is ever checked for null. Deleted nodes are chained through
+// their left link into a free list and reused by the next inserts; the array only grows, by doubling, until compact()
+// copies the tree into an array of its size. Inserts and deletes are the iterative ones of AVL and build the same tree.
+// Links are int indices into one array, so the pool holds at most about 536M nodes, after which inserts throw.
+public class PooledAVL {
+    private static final int NIL = 0;
+    private static final int KEY = 0;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+    private static final int HEIGHT = 3;
+    private static final int NODE_SIZE = 4;
+    // largest array the JVM reliably allocates, in whole nodes
+    private static final int MAX_ARRAY = (Integer.MAX_VALUE - 8) & -NODE_SIZE;
+    // an AVL tree of height h holds at least fib(h + 2) - 1 nodes, so even 2^31 keys stay below 46 levels
+    private static final int MAX_HEIGHT = 64;
+
+    private int[] nodes;
+    private int root = NIL;
+    // next never used node and the head of the chain of deleted ones
+    private int nextNode = NODE_SIZE;
+    private int freeList = NIL;
+    private int size;
+    // nodes from the root down to the one being changed, reused by every insert and delete
+    private final int[] path = new int[MAX_HEIGHT];
+
+    public PooledAVL() {
+        this(16);
+    }
+
+    public PooledAVL(int capacity) {
+        if (capacity > MAX_ARRAY / NODE_SIZE - 1) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        nodes = new int[NODE_SIZE * Math.max(2, capacity + 1)];
+    }
+
+    public void insert(List<Integer> data) {
+        for (int d : data) {
+            insertValue(d);
+        }
+    }
+
+    private boolean insertNode(int data) {
+        int depth = 0;
+        int actualNode = root;
+        while (actualNode != NIL) {
+            if (data == key(actualNode)) {
+                return false;
+            }
+            path[depth++] = actualNode;
+            actualNode = (data < key(actualNode)) ? left(actualNode) : right(actualNode);
+        }
+
+        int insertNode = allocate(data);
+        size++;
+        if (depth == 0) {
+            root = insertNode;
+            return true;
+        }
+        if (data < key(path[depth - 1])) {
+            nodes[path[depth - 1] + LEFT] = insertNode;
+        } else {
+            nodes[path[depth - 1] + RIGHT] = insertNode;
+        }
+        rebalancePath(depth);
+        return true;
+    }
+
+    private int allocate(int data) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = nodes[node + LEFT];
+        } else {
+            if (nextNode == nodes.length) {
+                if (nodes.length == MAX_ARRAY) {
+                    throw new IllegalStateException("Pool is full: " + (MAX_ARRAY / NODE_SIZE - 1) + " nodes");
+                }
+                nodes = Arrays.copyOf(nodes, (int) Math.min(2L * nodes.length, MAX_ARRAY));
+            }
+            node = nextNode;
+            nextNode += NODE_SIZE;
+        }
+        nodes[node + KEY] = data;
+        nodes[node + LEFT] = NIL;
+        nodes[node + RIGHT] = NIL;
+        nodes[node + HEIGHT] = 1;
+        return node;
+    }
+
+    public void search(List<Integer> data) {
+        for (int d : data) {
+            searchNode(d);
+        }
+    }
+
+    private boolean searchNode(int data) {
+        int actualNode = root;
+        while (actualNode != NIL) {
+            if (data == key(actualNode)) {
+                return true;
+            }
+            actualNode = (data < key(actualNode)) ? left(actualNode) : right(actualNode);
+        }
+        return false;
+    }
+
+    public void delete(List<Integer> data) {
+        for (int d : data) {
+            deleteValue(d);
+        }
+    }
+
+    // a node with two children takes the key of its successor, which is unlinked and freed instead
+    private boolean deleteNode(int data) {
+        int depth = 0;
+        int actualNode = root;
+        while (actualNode != NIL && key(actualNode) != data) {
+            path[depth++] = actualNode;
+            actualNode = (data < key(actualNode)) ? left(actualNode) : right(actualNode);
+        }
+        if (actualNode == NIL) {
+            return false;
+        }
+
+        if (left(actualNode) != NIL && right(actualNode) != NIL) {
+            int target = actualNode;
+            path[depth++] = actualNode;
+            actualNode = right(actualNode);
+            while (left(actualNode) != NIL) {
+                path[depth++] = actualNode;
+                actualNode = left(actualNode);
+            }
+            nodes[target + KEY] = key(actualNode);
+        }
+        replaceChild(depth, actualNode, (left(actualNode) != NIL) ? left(actualNode) : right(actualNode));
+        nodes[actualNode + LEFT] = freeList;
+        freeList = actualNode;
+        size--;
+        rebalancePath(depth);
+        return true;
+    }
+
+    // rebalances path[depth - 1] up to the root, stopping once a subtree has kept its height
+    private void rebalancePath(int depth) {
+        while (depth > 0) {
+            int actualNode = path[--depth];
+            int oldHeight = nodes[actualNode + HEIGHT];
+            int balanced = rebalance(actualNode);
+            if (balanced != actualNode) {
+                replaceChild(depth, actualNode, balanced);
+            }
+            if (nodes[balanced + HEIGHT] == oldHeight) {
+                break;
+            }
+        }
+    }
+
+    private void replaceChild(int depth, int oldChild, int newChild) {
+        if (depth == 0) {
+            root = newChild;
+        } else if (left(path[depth - 1]) == oldChild) {
+            nodes[path[depth - 1] + LEFT] = newChild;
+        } else {
+            nodes[path[depth - 1] + RIGHT] = newChild;
+        }
+    }
+
+    private int rebalance(int actualNode) {
+        updateHeight(actualNode);
+        int balanceFactor = getBalanceFactor(actualNode);
+
+        if (balanceFactor > 1) {
+            if (getBalanceFactor(left(actualNode)) < 0) {
+                nodes[actualNode + LEFT] = leftRotate(left(actualNode));
+            }
+            return rightRotate(actualNode);
+        }
+        if (balanceFactor < -1) {
+            if (getBalanceFactor(right(actualNode)) > 0) {
+                nodes[actualNode + RIGHT] = rightRotate(right(actualNode));
+            }
+            return leftRotate(actualNode);
+        }
+        return actualNode;
+    }
+
+    private int rightRotate(int actualNode) {
+        int help1 = left(actualNode);
+        nodes[actualNode + LEFT] = right(help1);
+        nodes[help1 + RIGHT] = actualNode;
+        updateHeight(actualNode);
+        updateHeight(help1);
+        return help1;
+    }
+
+    private int leftRotate(int actualNode) {
+        int help1 = right(actualNode);
+        nodes[actualNode + RIGHT] = left(help1);
+        nodes[help1 + LEFT] = actualNode;
+        updateHeight(actualNode);
+        updateHeight(help1);
+        return help1;
+    }
+
+    private void updateHeight(int actualNode) {
+        nodes[actualNode + HEIGHT] = Math.max(nodes[left(actualNode) + HEIGHT], nodes[right(actualNode) + HEIGHT]) + 1;
+    }
+
+    // the height of NIL is 0, so this also holds for the empty subtree
+    private int getBalanceFactor(int actualNode) {
+        return nodes[left(actualNode) + HEIGHT] - nodes[right(actualNode) + HEIGHT];
+    }
+
+    private int key(int node) {
+        return nodes[node + KEY];
+    }
+
+    private int left(int node) {
+        return nodes[node + LEFT];
+    }
+
+    private int right(int node) {
+        return nodes[node + RIGHT];
+    }
+
+    // Copies the nodes into a fresh array in depth-first order, so a node and its left child usually share a cache line
+    // and the free list is gone. Searches in a tree built in random order run faster afterwards, like they do in
+    // the Node based tree once the garbage collector has copied its nodes in the order it reaches them.
+    public void compact() {
+        int[] compacted = new int[NODE_SIZE * Math.max(2, size + 1)];
+        int next = NODE_SIZE;
+        if (root != NIL) {
+            // every node on the stack already has its place in the new array, its children are copied when it is popped
+            int[] stack = new int[2 * MAX_HEIGHT];
+            int top = 0;
+            System.arraycopy(nodes, root, compacted, next, NODE_SIZE);
+            root = next;
+            next += NODE_SIZE;
+            stack[top++] = root;
+            while (top > 0) {
+                int node = stack[--top];
+                int right = compacted[node + RIGHT];
+                int left = compacted[node + LEFT];
+                if (right != NIL) {
+                    System.arraycopy(nodes, right, compacted, next, NODE_SIZE);
+                    compacted[node + RIGHT] = next;
+                    stack[top++] = next;
+                    next += NODE_SIZE;
+                }
+                if (left != NIL) {
+                    System.arraycopy(nodes, left, compacted, next, NODE_SIZE);
+                    compacted[node + LEFT] = next;
+                    stack[top++] = next;
+                    next += NODE_SIZE;
+                }
+            }
+        }
+        nodes = compacted;
+        nextNode = next;
+        freeList = NIL;
+    }
+
+    public void insertValue(int value) {
+        insertNode(value);
+    }
+
+    public boolean searchValue(int value) {
+        return searchNode(value);
+    }
+
+    public boolean deleteValue(int value) {
+        return deleteNode(value);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // nodes the array has room for, the empty subtree included
+    public int getCapacity() {
+        return nodes.length / NODE_SIZE;
+    }
+
+    public int getHeight() {
+        return nodes[root + HEIGHT];
+    }
+
+    public void traverseInOrder() {
+        traverseInOrder(root);
+    }
+
+    private void traverseInOrder(int actualNode) {
+        if (actualNode != NIL) {
+            traverseInOrder(left(actualNode));
+            System.out.print(" " + key(actualNode));
+            traverseInOrder(right(actualNode));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package binarytree;
 
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 public class Splay {
     private static class Node {
@@ -13,6 +15,36 @@ public class Splay {
         }
     }
 
+    // Ascending cursor over the values in [lo, hi]. Steps follow the parent links to the in-order successor and never
+    // splay, so exporting a range leaves the shape of the tree as it is. A full walk crosses every edge twice, so a
+    // step is amortized O(1), and unlike a stack it does not depend on the depth of the tree, which a splay tree
+    // does not bound. Rotations keep the in-order sequence, so searches during a scan are fine; deleting the
+    // node the cursor will return next is not.
+    private static class RangeCursor implements PrimitiveIterator.OfInt {
+        private Node next;
+        private final int hi;
+
+        RangeCursor(Node first, int hi) {
+            this.next = first;
+            this.hi = hi;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null && next.data <= hi;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node actualNode = next;
+            next = successor(actualNode);
+            return actualNode.data;
+        }
+    }
+
     private Node root;
 
     public Splay() {
@@ -216,6 +248,49 @@ public class Splay {
         return maxFromLeftSubtree;
     }
 
+    private static Node successor(Node actualNode) {
+        if (actualNode.right != null) {
+            actualNode = actualNode.right;
+            while (actualNode.left != null) {
+                actualNode = actualNode.left;
+            }
+            return actualNode;
+        }
+        while (actualNode.parent != null && actualNode == actualNode.parent.right) {
+            actualNode = actualNode.parent;
+        }
+        return actualNode.parent;
+    }
+
+    // node with the smallest value >= data, the leftmost one of equal values
+    private Node ceilingNode(int data) {
+        Node found = null;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (actualNode.data >= data) {
+                found = actualNode;
+                actualNode = actualNode.left;
+            } else {
+                actualNode = actualNode.right;
+            }
+        }
+        return found;
+    }
+
+    private Node floorNode(int data) {
+        Node found = null;
+        Node actualNode = root;
+        while (actualNode != null) {
+            if (actualNode.data <= data) {
+                found = actualNode;
+                actualNode = actualNode.right;
+            } else {
+                actualNode = actualNode.left;
+            }
+        }
+        return found;
+    }
+
     public Node maximum(Node actualNode) {
         while (actualNode.right != null) {
             actualNode = actualNode.right;
@@ -235,6 +310,36 @@ public class Splay {
         return deleteNode(value);
     }
 
+    // Values in [lo, hi] in ascending order, nextInt() and forEachRemaining(IntConsumer) avoid boxing. The first node
+    // is splayed once like a search, which pays for the walk down to it; the steps after it splay nothing.
+    public PrimitiveIterator.OfInt range(int lo, int hi) {
+        Node first = ceilingNode(lo);
+        if (first != null && first.data <= hi) {
+            splay(first);
+        }
+        return new RangeCursor(first, hi);
+    }
+
+    // the smallest value >= value, null when there is none; the node found is splayed like a search
+    public Integer ceiling(int value) {
+        Node found = ceilingNode(value);
+        if (found == null) {
+            return null;
+        }
+        splay(found);
+        return found.data;
+    }
+
+    // the largest value <= value, null when there is none; the node found is splayed like a search
+    public Integer floor(int value) {
+        Node found = floorNode(value);
+        if (found == null) {
+            return null;
+        }
+        splay(found);
+        return found.data;
+    }
+
     public void traverseInOrder(Node node) {
         if (node != null) {
             traverseInOrder(node.left);
@@ -0,0 +1,21 @@
+package hashtable;
+
+import static hashtable.HashTableChaining.*;
+
+// Entry as stored by a bounded HashTableChaining, carrying the bookkeeping of its eviction policy inline so a read
+// only flips a bit or relinks two pointers instead of updating a side structure. It can expire like any other entry
+// with a time to live.
+final class CacheNode extends ExpiringEntry {
+    // hash under the table's strategy, also used by the frequency sketch
+    final int hash;
+    CacheNode prev;
+    CacheNode next;
+    byte segment;
+    boolean referenced;
+    int clockIndex;
+
+    CacheNode(Entry entry, int hash, long expiresAt) {
+        super(entry, expiresAt);
+        this.hash = hash;
+    }
+}
@@ -0,0 +1,310 @@
+package hashtable;
+
+// Bookkeeping behind an EvictionPolicy. The table calls add for every new entry and evicts the node it returns,
+// access for every hit and remove for every delete; nodes handed back by add are already forgotten by the policy.
+abstract class CachePolicy {
+    static final byte PROBATION = 0;
+    static final byte PROTECTED = 1;
+    static final byte WINDOW = 2;
+
+    final int maxEntries;
+
+    CachePolicy(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // records a new node and returns the node to evict when the cache went over maxEntries, null otherwise
+    abstract CacheNode add(CacheNode node);
+
+    abstract void access(CacheNode node);
+
+    abstract void remove(CacheNode node);
+
+    // a lookup of a missing key, only frequency based policies care
+    void miss(int hash) {
+    }
+
+    static final class Clock extends CachePolicy {
+        private final CacheNode[] ring;
+        // ring positions left empty by deletes, filled before the hand has to evict anything
+        private final int[] free;
+        private int freeCount;
+        private int hand;
+
+        Clock(int maxEntries) {
+            super(maxEntries);
+            ring = new CacheNode[maxEntries];
+            free = new int[maxEntries];
+            for (int i = 0; i < maxEntries; i++) {
+                free[i] = maxEntries - 1 - i;
+            }
+            freeCount = maxEntries;
+        }
+
+        @Override
+        CacheNode add(CacheNode node) {
+            if (freeCount > 0) {
+                place(node, free[--freeCount]);
+                return null;
+            }
+
+            // every full pass clears the bits it passes, so the hand stops within two rounds
+            while (ring[hand].referenced) {
+                ring[hand].referenced = false;
+                hand = (hand + 1) % ring.length;
+            }
+            CacheNode victim = ring[hand];
+            place(node, hand);
+            hand = (hand + 1) % ring.length;
+            return victim;
+        }
+
+        private void place(CacheNode node, int i) {
+            ring[i] = node;
+            node.clockIndex = i;
+            node.referenced = false;
+        }
+
+        @Override
+        void access(CacheNode node) {
+            node.referenced = true;
+        }
+
+        @Override
+        void remove(CacheNode node) {
+            ring[node.clockIndex] = null;
+            free[freeCount++] = node.clockIndex;
+        }
+    }
+
+    static final class Segmented extends CachePolicy {
+        // share of the entries that survived a second read, as in Caffeine
+        private static final float PROTECTED_RATIO = 0.8f;
+
+        private final LruList probation = new LruList();
+        private final LruList protectedList = new LruList();
+        private final int protectedMax;
+
+        Segmented(int maxEntries) {
+            super(maxEntries);
+            protectedMax = (int) (maxEntries * PROTECTED_RATIO);
+        }
+
+        @Override
+        CacheNode add(CacheNode node) {
+            node.segment = PROBATION;
+            probation.addFirst(node);
+            if (size() <= maxEntries) {
+                return null;
+            }
+            CacheNode victim = peekVictim();
+            remove(victim);
+            return victim;
+        }
+
+        int size() {
+            return probation.size + protectedList.size;
+        }
+
+        // least recently used entry on probation, the protected one only when probation is empty
+        CacheNode peekVictim() {
+            return (probation.tail != null) ? probation.tail : protectedList.tail;
+        }
+
+        @Override
+        void access(CacheNode node) {
+            if (node.segment == PROTECTED) {
+                protectedList.moveToFront(node);
+                return;
+            }
+
+            probation.unlink(node);
+            node.segment = PROTECTED;
+            protectedList.addFirst(node);
+            if (protectedList.size > protectedMax) {
+                CacheNode demoted = protectedList.removeLast();
+                demoted.segment = PROBATION;
+                probation.addFirst(demoted);
+            }
+        }
+
+        @Override
+        void remove(CacheNode node) {
+            ((node.segment == PROTECTED) ? protectedList : probation).unlink(node);
+        }
+    }
+
+    static final class TinyLfu extends CachePolicy {
+        // share of the entries in the admission window
+        private static final float WINDOW_RATIO = 0.01f;
+
+        private final LruList window = new LruList();
+        private final int windowMax;
+        private final Segmented main;
+        private final FrequencySketch sketch;
+
+        TinyLfu(int maxEntries) {
+            super(maxEntries);
+            windowMax = Math.max(1, (int) (maxEntries * WINDOW_RATIO));
+            main = new Segmented(maxEntries - windowMax);
+            sketch = new FrequencySketch(maxEntries);
+        }
+
+        @Override
+        CacheNode add(CacheNode node) {
+            sketch.increment(node.hash);
+            node.segment = WINDOW;
+            window.addFirst(node);
+            if (window.size <= windowMax) {
+                return null;
+            }
+
+            CacheNode candidate = window.removeLast();
+            if (main.size() < main.maxEntries) {
+                main.add(candidate);
+                return null;
+            }
+            // the candidate has to be read more often than the entry it would displace, ties keep the old one
+            CacheNode victim = main.peekVictim();
+            if (victim == null || sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                return candidate;
+            }
+            main.remove(victim);
+            main.add(candidate);
+            return victim;
+        }
+
+        @Override
+        void access(CacheNode node) {
+            sketch.increment(node.hash);
+            if (node.segment == WINDOW) {
+                window.moveToFront(node);
+            } else {
+                main.access(node);
+            }
+        }
+
+        @Override
+        void remove(CacheNode node) {
+            if (node.segment == WINDOW) {
+                window.unlink(node);
+            } else {
+                main.remove(node);
+            }
+        }
+
+        @Override
+        void miss(int hash) {
+            sketch.increment(hash);
+        }
+    }
+
+    // intrusive doubly linked list through CacheNode.prev and next, the head is the most recently used node
+    static final class LruList {
+        CacheNode head;
+        CacheNode tail;
+        int size;
+
+        void addFirst(CacheNode node) {
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            } else {
+                tail = node;
+            }
+            head = node;
+            size++;
+        }
+
+        void unlink(CacheNode node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        CacheNode removeLast() {
+            CacheNode node = tail;
+            if (node != null) {
+                unlink(node);
+            }
+            return node;
+        }
+
+        void moveToFront(CacheNode node) {
+            if (head != node) {
+                unlink(node);
+                addFirst(node);
+            }
+        }
+    }
+
+    // Count-min sketch with four 4-bit counters per key, sixteen of them packed into a long. All counters are halved
+    // after 10 * maxEntries increments, so keys that were popular long ago lose their advantage.
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxEntries) {
+            table = new long[powerOfTwo(Math.max(maxEntries, 1))];
+            sampleSize = 10 * Math.max(maxEntries, 1);
+        }
+
+        int frequency(int hash) {
+            int start = (hash & 3) << 2;
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                int shift = (start + i) << 2;
+                frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> shift) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int shift = (start + i) << 2;
+                if (((table[index] >>> shift) & 0xF) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int j = 0; j < table.length; j++) {
+                    table[j] = (table[j] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int indexOf(int hash, int i) {
+            long x = (hash + SEEDS[i]) * SEEDS[i];
+            x += x >>> 32;
+            return (int) x & (table.length - 1);
+        }
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+}
@@ -0,0 +1,50 @@
+package hashtable;
+
+// Counters of a bounded HashTableChaining for sizing it: a low hit rate with many evictions asks for more entries,
+// a high hit rate with almost no evictions for fewer.
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int maxEntries;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int maxEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxEntries = maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits %d | misses %d | hit rate %.4f | evictions %d | size %d of %d",
+                hits, misses, getHitRate(), evictions, size, maxEntries);
+    }
+}
@@ -0,0 +1,231 @@
+package hashtable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static hashtable.HashTableChaining.*;
+
+// Thread-safe counterpart of HashTableChaining. Writers lock one stripe of buckets and publish a copied bucket array,
+// so readers never lock and always see a complete bucket. A resize takes every stripe lock and swaps the whole table.
+public class ConcurrentHashTableChaining implements HashTable {
+    private static final Entry[] emptyBucket = new Entry[0];
+
+    private volatile AtomicReferenceArray<Entry[]> bucketList;
+    private final ReentrantLock[] locks;
+    // entries per stripe, only touched while holding the stripe lock
+    private final int[] stripeSizes;
+    private final float loadFactor;
+
+    public ConcurrentHashTableChaining(int capacity, float loadFactor) {
+        this(capacity, loadFactor, 64);
+    }
+
+    public ConcurrentHashTableChaining(int capacity, float loadFactor, int stripes) {
+        stripes = powerOfTwo(stripes);
+        // a bucket must always belong to the same stripe, so the table is never smaller than the stripe count
+        capacity = Math.max(powerOfTwo(capacity), stripes);
+
+        this.loadFactor = loadFactor;
+        this.locks = new ReentrantLock[stripes];
+        this.stripeSizes = new int[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        bucketList = newBucketList(capacity);
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        int h = hash(e.getKey());
+        int stripe = h & (locks.length - 1);
+        boolean needsResize;
+
+        locks[stripe].lock();
+        try {
+            // the table cannot be swapped while a stripe lock is held
+            AtomicReferenceArray<Entry[]> buckets = bucketList;
+            int i = h & (buckets.length() - 1);
+            Entry[] bucket = buckets.get(i);
+
+            for (Entry entry : bucket) {
+                if (entry.getKey().equals(e.getKey())) {
+                    return;
+                }
+            }
+
+            Entry[] newBucket = new Entry[bucket.length + 1];
+            System.arraycopy(bucket, 0, newBucket, 0, bucket.length);
+            newBucket[bucket.length] = e;
+            buckets.set(i, newBucket);
+
+            stripeSizes[stripe]++;
+            needsResize = stripeSizes[stripe] > loadFactor * buckets.length() / locks.length;
+        } finally {
+            locks[stripe].unlock();
+        }
+
+        if (needsResize) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        AtomicReferenceArray<Entry[]> oldBuckets = bucketList;
+
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            // another thread may have resized while we were waiting for the locks
+            if (oldBuckets != bucketList) {
+                return;
+            }
+
+            int capacity = oldBuckets.length() * 2;
+            AtomicReferenceArray<Entry[]> newBuckets = newBucketList(capacity);
+            for (int j = 0; j < oldBuckets.length(); j++) {
+                for (Entry entry : oldBuckets.get(j)) {
+                    int i = hash(entry.getKey()) & (capacity - 1);
+                    Entry[] bucket = newBuckets.get(i);
+                    Entry[] newBucket = new Entry[bucket.length + 1];
+                    System.arraycopy(bucket, 0, newBucket, 0, bucket.length);
+                    newBucket[bucket.length] = entry;
+                    newBuckets.set(i, newBucket);
+                }
+            }
+            bucketList = newBuckets;
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        AtomicReferenceArray<Entry[]> buckets = bucketList;
+        int h = hash(e.getKey());
+        Entry[] bucket = buckets.get(h & (buckets.length() - 1));
+
+        for (Entry entry : bucket) {
+            if (entry.getKey().equals(e.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        int h = hash(e.getKey());
+        int stripe = h & (locks.length - 1);
+
+        locks[stripe].lock();
+        try {
+            AtomicReferenceArray<Entry[]> buckets = bucketList;
+            int i = h & (buckets.length() - 1);
+            Entry[] bucket = buckets.get(i);
+
+            for (int j = 0; j < bucket.length; j++) {
+                if (bucket[j].getKey().equals(e.getKey())) {
+                    Entry[] newBucket = emptyBucket;
+                    if (bucket.length > 1) {
+                        newBucket = new Entry[bucket.length - 1];
+                        System.arraycopy(bucket, 0, newBucket, 0, j);
+                        System.arraycopy(bucket, j + 1, newBucket, j, bucket.length - j - 1);
+                    }
+                    buckets.set(i, newBucket);
+                    stripeSizes[stripe]--;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // spreads the high bits down, the bucket and the stripe are both taken from the low bits
+    private int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    private static AtomicReferenceArray<Entry[]> newBucketList(int capacity) {
+        AtomicReferenceArray<Entry[]> buckets = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            buckets.set(i, emptyBucket);
+        }
+        return buckets;
+    }
+
+    public int getSize() {
+        int size = 0;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                size += stripeSizes[i];
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return bucketList.length();
+    }
+
+    public void printHashTableContent() {
+        AtomicReferenceArray<Entry[]> buckets = bucketList;
+        for (int i = 0; i < buckets.length(); i++) {
+            System.out.print(i + ". ");
+            for (Entry entry : buckets.get(i)) {
+                System.out.print(entry.getKey() + " " + entry.getValue() + "; ");
+            }
+            System.out.println();
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+}
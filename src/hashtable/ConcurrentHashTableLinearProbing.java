@@ -0,0 +1,388 @@
+package hashtable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import static hashtable.HashTableChaining.*;
+
+// Lock-free counterpart of HashTableLinearProbing modelled on Cliff Click's NonBlockingHashMap.
+// A key slot is claimed once by CAS and never changes again, deletes only swap the value for a tombstone.
+// On resize the old values are boxed into primes while they are copied, and every thread that runs into
+// a prime or a full table helps to copy a chunk before it retries in the new table.
+public class ConcurrentHashTableLinearProbing implements HashTable {
+    private static final Object TOMBSTONE = new Object();
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE);
+    // passed as the expected value by a resize copy, which must never overwrite a newer value
+    private static final Object COPY = null;
+    private static final Object NO_MATCH_OLD = new Object();
+    private static final int REPROBE_LIMIT = 10;
+    private static final int COPY_CHUNK = 1024;
+
+    private static final AtomicReferenceFieldUpdater<ConcurrentHashTableLinearProbing, Table> TOP =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentHashTableLinearProbing.class, Table.class, "top");
+
+    private static final class Prime {
+        final Object value;
+
+        Prime(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Table {
+        // key of slot i is stored at 2 * i and its value at 2 * i + 1
+        final AtomicReferenceArray<Object> slots;
+        final int capacity;
+        final AtomicInteger slotsUsed = new AtomicInteger();
+        final AtomicReference<Table> next = new AtomicReference<>();
+        final AtomicInteger copyIndex = new AtomicInteger();
+        final AtomicInteger copyDone = new AtomicInteger();
+
+        Table(int capacity) {
+            this.capacity = capacity;
+            this.slots = new AtomicReferenceArray<>(2 * capacity);
+        }
+
+        Object key(int i) {
+            return slots.get(2 * i);
+        }
+
+        Object value(int i) {
+            return slots.get(2 * i + 1);
+        }
+
+        boolean casKey(int i, Object expected, Object key) {
+            return slots.compareAndSet(2 * i, expected, key);
+        }
+
+        boolean casValue(int i, Object expected, Object value) {
+            return slots.compareAndSet(2 * i + 1, expected, value);
+        }
+    }
+
+    private volatile Table top;
+    private final float loadFactor;
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentHashTableLinearProbing(int capacity, float loadFactor) {
+        this.loadFactor = loadFactor;
+        this.top = new Table(powerOfTwo(Math.max(capacity, 2)));
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        putIfMatch(top, e.getKey(), hash(e.getKey()), e, NO_MATCH_OLD);
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        return get(top, e.getKey(), hash(e.getKey())) != null;
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        Object oldValue = putIfMatch(top, e.getKey(), hash(e.getKey()), TOMBSTONE, NO_MATCH_OLD);
+        return oldValue != null && oldValue != TOMBSTONE;
+    }
+
+    private Object get(Table t, String key, int h) {
+        int mask = t.capacity - 1;
+        int i = h & mask;
+        int reprobes = 0;
+
+        while (true) {
+            Object k = t.key(i);
+            Object v = t.value(i);
+            if (k == null) {
+                return null;
+            }
+
+            Table newTable = t.next.get();
+            if (key.equals(k)) {
+                if (!(v instanceof Prime)) {
+                    return (v == TOMBSTONE) ? null : v;
+                }
+                return get(copySlotAndCheck(t, i, false), key, h);
+            }
+
+            // a killed key slot means that every later insert of this key went to the new table
+            if (++reprobes >= reprobeLimit(t.capacity) || k == TOMBSTONE) {
+                return (newTable == null) ? null : get(helpCopy(newTable), key, h);
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Returns the previous value, TOMBSTONE if there was none. A resize copy (expected value COPY) returns null
+    // only when it was the one that installed the value in the new table.
+    private Object putIfMatch(Table t, String key, int h, Object putValue, Object expectedValue) {
+        int mask = t.capacity - 1;
+        int i = h & mask;
+        int reprobes = 0;
+        Object k;
+        Object v;
+
+        while (true) {
+            v = t.value(i);
+            k = t.key(i);
+            if (k == null) {
+                // deleting a missing key must not claim a slot
+                if (putValue == TOMBSTONE) {
+                    return TOMBSTONE;
+                }
+                if (t.casKey(i, null, key)) {
+                    t.slotsUsed.incrementAndGet();
+                    break;
+                }
+                k = t.key(i);
+            }
+            if (key.equals(k)) {
+                break;
+            }
+
+            if (++reprobes >= reprobeLimit(t.capacity) || k == TOMBSTONE) {
+                Table newTable = resize(t);
+                if (expectedValue != COPY) {
+                    helpCopy(newTable);
+                }
+                return putIfMatch(newTable, key, h, putValue, expectedValue);
+            }
+            i = (i + 1) & mask;
+        }
+
+        Table newTable = t.next.get();
+        if (newTable == null && ((v == null && isFull(t, reprobes)) || v instanceof Prime)) {
+            newTable = resize(t);
+        }
+        if (newTable != null) {
+            return putIfMatch(copySlotAndCheck(t, i, expectedValue != COPY), key, h, putValue, expectedValue);
+        }
+
+        while (true) {
+            if (expectedValue == COPY && v != null) {
+                return v;
+            }
+
+            if (t.casValue(i, v, putValue)) {
+                if (expectedValue != COPY) {
+                    boolean wasLive = v != null && v != TOMBSTONE;
+                    boolean isLive = putValue != TOMBSTONE;
+                    if (!wasLive && isLive) {
+                        size.increment();
+                    } else if (wasLive && !isLive) {
+                        size.decrement();
+                    }
+                    return (v == null) ? TOMBSTONE : v;
+                }
+                return v;
+            }
+
+            v = t.value(i);
+            if (v instanceof Prime) {
+                return putIfMatch(copySlotAndCheck(t, i, expectedValue != COPY), key, h, putValue, expectedValue);
+            }
+        }
+    }
+
+    private boolean isFull(Table t, int reprobes) {
+        int used = t.slotsUsed.get();
+        return used >= loadFactor * t.capacity || (reprobes >= REPROBE_LIMIT && used >= reprobeLimit(t.capacity));
+    }
+
+    private Table resize(Table t) {
+        Table newTable = t.next.get();
+        if (newTable != null) {
+            return newTable;
+        }
+
+        // dead keys keep their slots, so a table full of them is copied into one of the same size,
+        // otherwise the resize was caused by load or long probe chains and the table has to grow
+        long live = size.sum();
+        long dead = t.slotsUsed.get() - live;
+        int newCapacity = t.capacity;
+        if (live >= t.capacity / 4 || dead < t.capacity / 4) {
+            newCapacity <<= 1;
+            if (live >= t.capacity / 2) {
+                newCapacity <<= 1;
+            }
+        }
+
+        newTable = new Table(newCapacity);
+        if (t.next.compareAndSet(null, newTable)) {
+            return newTable;
+        }
+        return t.next.get();
+    }
+
+    // helps the copy of the top level table and hands back the table the caller wants to continue in
+    private Table helpCopy(Table helper) {
+        Table t = top;
+        if (t.next.get() != null) {
+            helpCopyImpl(t, false);
+        }
+        return helper;
+    }
+
+    private void helpCopyImpl(Table oldTable, boolean copyAll) {
+        Table newTable = oldTable.next.get();
+        int capacity = oldTable.capacity;
+        int chunk = Math.min(capacity, COPY_CHUNK);
+        boolean panic = false;
+        int copyIndex = -1;
+
+        while (oldTable.copyDone.get() < capacity) {
+            // once every chunk has been handed out twice, the remaining copy is done by whoever is still here
+            if (!panic) {
+                copyIndex = oldTable.copyIndex.get();
+                while (copyIndex < (capacity << 1) && !oldTable.copyIndex.compareAndSet(copyIndex, copyIndex + chunk)) {
+                    copyIndex = oldTable.copyIndex.get();
+                }
+                if (copyIndex >= (capacity << 1)) {
+                    panic = true;
+                }
+            }
+
+            int workDone = 0;
+            for (int j = 0; j < chunk; j++) {
+                if (copySlot(oldTable, (copyIndex + j) & (capacity - 1), newTable)) {
+                    workDone++;
+                }
+            }
+            if (workDone > 0) {
+                copyCheckAndPromote(oldTable, workDone);
+            }
+
+            copyIndex += chunk;
+            if (!copyAll && !panic) {
+                return;
+            }
+        }
+
+        copyCheckAndPromote(oldTable, 0);
+    }
+
+    private Table copySlotAndCheck(Table t, int i, boolean shouldHelp) {
+        Table newTable = t.next.get();
+        if (copySlot(t, i, newTable)) {
+            copyCheckAndPromote(t, 1);
+        }
+        return shouldHelp ? helpCopy(newTable) : newTable;
+    }
+
+    // Returns true for exactly one thread per slot, the one whose work finished the copy of that slot.
+    private boolean copySlot(Table oldTable, int i, Table newTable) {
+        Object key;
+        while ((key = oldTable.key(i)) == null) {
+            oldTable.casKey(i, null, TOMBSTONE);
+        }
+
+        Object oldValue = oldTable.value(i);
+        while (!(oldValue instanceof Prime)) {
+            Prime box = (oldValue == null || oldValue == TOMBSTONE) ? TOMBPRIME : new Prime(oldValue);
+            if (oldTable.casValue(i, oldValue, box)) {
+                if (box == TOMBPRIME) {
+                    return true;
+                }
+                oldValue = box;
+                break;
+            }
+            oldValue = oldTable.value(i);
+        }
+        if (oldValue == TOMBPRIME) {
+            return false;
+        }
+
+        Object unboxed = ((Prime) oldValue).value;
+        boolean copied = putIfMatch(newTable, (String) key, hash((String) key), unboxed, COPY) == null;
+
+        while (oldValue != TOMBPRIME && !oldTable.casValue(i, oldValue, TOMBPRIME)) {
+            oldValue = oldTable.value(i);
+        }
+        return copied;
+    }
+
+    private void copyCheckAndPromote(Table oldTable, int workDone) {
+        int done = (workDone > 0) ? oldTable.copyDone.addAndGet(workDone) : oldTable.copyDone.get();
+        if (done == oldTable.capacity && top == oldTable) {
+            TOP.compareAndSet(this, oldTable, oldTable.next.get());
+        }
+    }
+
+    private static int reprobeLimit(int capacity) {
+        return REPROBE_LIMIT + (capacity >> 4);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    public int getSize() {
+        return (int) size.sum();
+    }
+
+    public int getCapacity() {
+        return top.capacity;
+    }
+
+    public void printHashTableContent() {
+        Table t = top;
+        for (int i = 0; i < t.capacity; i++) {
+            Object k = t.key(i);
+            Object v = t.value(i);
+            if (v instanceof Prime) {
+                v = ((Prime) v).value;
+            }
+            if (k instanceof String && v instanceof Entry) {
+                System.out.println(i + ". " + k + " " + ((Entry) v).getValue());
+            } else {
+                System.out.println(i + ".");
+            }
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+}
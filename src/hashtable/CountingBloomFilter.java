@@ -0,0 +1,125 @@
+package hashtable;
+
+// Blocked counting Bloom filter kept beside a hash table, so a lookup of a missing key is usually answered without
+// touching the table. A key picks one 64-byte block of 128 four-bit counters and increments K of them, so every
+// check costs a single cache line. Counters make deletes possible; one that reaches 15 stays there, which can only
+// cost false positives, never false negatives.
+public class CountingBloomFilter {
+    // counters per expected entry and counters per key, about 1% false positives
+    private static final int COUNTERS_PER_ENTRY = 10;
+    private static final int K = 7;
+    private static final int BLOCK_LONGS = 8;
+    private static final int BLOCK_COUNTERS = 128;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] counters;
+    private final int blockMask;
+    private final int expectedEntries;
+    private long rejections;
+    private long falsePositives;
+
+    public CountingBloomFilter(int expectedEntries) {
+        this.expectedEntries = Math.max(expectedEntries, 1);
+        int blocks = powerOfTwo((int) Math.min(1 << 26, ((long) this.expectedEntries * COUNTERS_PER_ENTRY + BLOCK_COUNTERS - 1) / BLOCK_COUNTERS));
+        counters = new long[blocks * BLOCK_LONGS];
+        blockMask = blocks - 1;
+    }
+
+    public void add(int hash) {
+        long block = mix(hash);
+        int base = ((int) (block >>> 32) & blockMask) * BLOCK_LONGS;
+        long positions = mix(block);
+        for (int i = 0; i < K; i++, positions >>>= 7) {
+            int counter = (int) positions & (BLOCK_COUNTERS - 1);
+            int index = base + (counter >>> 4);
+            int shift = (counter & 15) << 2;
+            if (((counters[index] >>> shift) & 0xF) < MAX_COUNT) {
+                counters[index] += 1L << shift;
+            }
+        }
+    }
+
+    // only for keys that were added before
+    public void remove(int hash) {
+        long block = mix(hash);
+        int base = ((int) (block >>> 32) & blockMask) * BLOCK_LONGS;
+        long positions = mix(block);
+        for (int i = 0; i < K; i++, positions >>>= 7) {
+            int counter = (int) positions & (BLOCK_COUNTERS - 1);
+            int index = base + (counter >>> 4);
+            int shift = (counter & 15) << 2;
+            long count = (counters[index] >>> shift) & 0xF;
+            if (count > 0 && count < MAX_COUNT) {
+                counters[index] -= 1L << shift;
+            }
+        }
+    }
+
+    // false means the key is certainly missing, such answers are counted as rejections
+    public boolean mightContain(int hash) {
+        long block = mix(hash);
+        int base = ((int) (block >>> 32) & blockMask) * BLOCK_LONGS;
+        long positions = mix(block);
+        for (int i = 0; i < K; i++, positions >>>= 7) {
+            int counter = (int) positions & (BLOCK_COUNTERS - 1);
+            if (((counters[base + (counter >>> 4)] >>> ((counter & 15) << 2)) & 0xF) == 0) {
+                rejections++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // reported by the table when a key the filter let through was missing after all
+    public void falsePositive() {
+        falsePositives++;
+    }
+
+    // keeps the measured rates going when a table replaces its filter with a bigger one
+    void carryCounters(CountingBloomFilter previous) {
+        rejections = previous.rejections;
+        falsePositives = previous.falsePositives;
+    }
+
+    // the table's hash only has 32 bits, so it is spread over 64 before choosing the block and the counters
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    // measured share of missing keys the filter let through
+    public double getFalsePositiveRate() {
+        long misses = rejections + falsePositives;
+        return (misses == 0) ? 0 : (double) falsePositives / misses;
+    }
+
+    // textbook rate for the given number of entries, (1 - e^(-K n / m))^K, blocking adds a little on top
+    public double getExpectedFalsePositiveRate(int entries) {
+        return Math.pow(1 - Math.exp(-(double) K * entries / (counters.length * 16L)), K);
+    }
+
+    public int getExpectedEntries() {
+        return expectedEntries;
+    }
+
+    public long getSizeInBytes() {
+        return counters.length * 8L;
+    }
+}
@@ -0,0 +1,463 @@
+package hashtable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static hashtable.HashTableChaining.*;
+
+// HashTableLinearProbing whose inserts and deletes survive a crash. Every mutation is applied and appended to a
+// write-ahead log under one lock, so the log has the same order as the table. Making the log durable happens outside
+// that lock with group commit: the first caller that needs a sync becomes the leader and writes and syncs everything
+// appended so far, callers arriving meanwhile wait for the leader and are then usually covered by its sync already.
+// A checkpoint only holds the locks while it copies the entry references and moves the log aside as the old log with
+// a fresh one in its place. It then writes the copy to a new file, renames that over the old checkpoint and only
+// then deletes the old log, while mutations go on into the new log. On open the checkpoint, the old log and the log
+// are replayed in that order; replaying twice gives the same table, so a crash between the rename and the deletion is
+// harmless. A torn record at the end of a log is detected by its checksum and cut off.
+public class DurableHashTable implements HashTable, AutoCloseable {
+    public enum FsyncPolicy {
+        // a mutation returns once its record is on disk
+        ALWAYS,
+        // records are written and synced by a background thread every interval, a crash loses at most one interval
+        INTERVAL,
+        // a mutation returns once its record is handed to the OS, which decides when it reaches the disk
+        OS
+    }
+
+    private static final String CHECKPOINT_FILE = "checkpoint.dat";
+    private static final String LOG_FILE = "wal.log";
+    private static final String OLD_LOG_FILE = "wal.old.log";
+    private static final byte INSERT = 1;
+    private static final byte DELETE = 2;
+    // appended records are written out even without a sync once this many bytes are pending
+    private static final int MAX_PENDING = 1 << 20;
+
+    private final HashTableLinearProbing table;
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final int checkpointInterval;
+    private final ScheduledExecutorService syncer;
+
+    // guarded by this, like the table
+    private ByteBuffer pending = ByteBuffer.allocate(4096);
+    private long appendedSeq;
+    private int opsSinceCheckpoint;
+
+    // taken before this whenever both are needed
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile long durableSeq;
+    private long syncs;
+    // guarded by syncLock, every checkpoint replaces it with a fresh one
+    private FileChannel log;
+
+    // one checkpoint at a time, taken before syncLock
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    public DurableHashTable(Path directory, FsyncPolicy policy) throws IOException {
+        this(directory, policy, 10, 1000000);
+    }
+
+    // syncIntervalMillis is only used by INTERVAL, a checkpoint is taken after every checkpointInterval mutations
+    public DurableHashTable(Path directory, FsyncPolicy policy, long syncIntervalMillis, int checkpointInterval) throws IOException {
+        this.table = new HashTableLinearProbing(10, 0.75f);
+        this.directory = directory;
+        this.policy = policy;
+        this.checkpointInterval = checkpointInterval;
+        Files.createDirectories(directory);
+
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+                replay(channel);
+            }
+        }
+        Path oldLog = directory.resolve(OLD_LOG_FILE);
+        boolean hasOldLog = Files.exists(oldLog);
+        if (hasOldLog) {
+            try (FileChannel channel = FileChannel.open(oldLog, StandardOpenOption.READ)) {
+                replay(channel);
+            }
+        }
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.truncate(replay(log));
+        log.position(log.size());
+        if (hasOldLog) {
+            // a checkpoint did not get to finish; the next one would move the log over the old log, so the records only
+            // the old log holds go into a checkpoint first
+            writeCheckpoint(snapshot());
+            Files.delete(oldLog);
+            syncDirectory();
+        }
+
+        if (policy == FsyncPolicy.INTERVAL) {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    // Applies every intact record and returns the position after the last one. The file is streamed through a buffer
+    // that only grows for a record bigger than it, so a log of any size can be replayed.
+    private long replay(FileChannel channel) throws IOException {
+        long size = channel.size();
+        channel.position(0);
+        ByteBuffer data = ByteBuffer.allocate(MAX_PENDING).flip();
+
+        CRC32 crc = new CRC32();
+        long valid = 0;
+        while (fill(channel, data, 4)) {
+            int length = data.getInt(data.position());
+            // a length running past the end of the file or of an array is a torn record
+            if (length < 9 || length > size - valid - 8 || length > Integer.MAX_VALUE - 8) {
+                break;
+            }
+            if (length + 8 > data.capacity()) {
+                data = ByteBuffer.allocate(length + 8).put(data).flip();
+            }
+            if (!fill(channel, data, length + 8)) {
+                break;
+            }
+            int start = data.position();
+            crc.reset();
+            crc.update(data.array(), start + 4, length);
+            if ((int) crc.getValue() != data.getInt(start + 4 + length)) {
+                break;
+            }
+
+            data.position(start + 4);
+            byte op = data.get();
+            String key = readString(data);
+            String value = readString(data);
+            if (op == INSERT) {
+                table.insertValue(new Entry(key, value));
+            } else {
+                table.deleteValue(key);
+            }
+            data.position(start + 8 + length);
+            valid += length + 8;
+        }
+        return valid;
+    }
+
+    // makes at least needed bytes readable in data, which must have room for them; false when the file ends before
+    private static boolean fill(FileChannel channel, ByteBuffer data, int needed) throws IOException {
+        if (data.remaining() >= needed) {
+            return true;
+        }
+        data.compact();
+        while (data.position() < needed && channel.read(data) > 0) {
+            // FileChannel may return fewer bytes than asked for
+        }
+        data.flip();
+        return data.remaining() >= needed;
+    }
+
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        String s = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return s;
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertValue(e);
+        }
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchValue(e);
+        }
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteValue(e);
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        long seq;
+        synchronized (this) {
+            table.insertValue(entry);
+            seq = append(INSERT, entry.getKey(), entry.getValue());
+        }
+        afterAppend(seq);
+    }
+
+    @Override
+    public synchronized boolean searchValue(Entry entry) {
+        return table.searchValue(entry);
+    }
+
+    public synchronized String get(CharSequence key) {
+        return table.get(key);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        long seq;
+        synchronized (this) {
+            if (!table.deleteValue(entry)) {
+                return false;
+            }
+            seq = append(DELETE, entry.getKey(), "");
+        }
+        afterAppend(seq);
+        return true;
+    }
+
+    private long append(byte op, String key, String value) {
+        pending = putRecord(pending, op, key, value);
+        opsSinceCheckpoint++;
+        return ++appendedSeq;
+    }
+
+    // record: length, operation, key, value, CRC32 of everything after the length; returns a bigger buffer when needed
+    private static ByteBuffer putRecord(ByteBuffer buffer, byte op, String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + keyBytes.length + 4 + valueBytes.length;
+        if (buffer.remaining() < length + 8) {
+            buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length + 8)).put(buffer.flip());
+        }
+
+        int start = buffer.position();
+        buffer.putInt(length).put(op).putInt(keyBytes.length).put(keyBytes).putInt(valueBytes.length).put(valueBytes);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start + 4, length);
+        buffer.putInt((int) crc.getValue());
+        return buffer;
+    }
+
+    private void afterAppend(long seq) {
+        boolean full;
+        boolean checkpointDue;
+        synchronized (this) {
+            full = pending.position() >= MAX_PENDING;
+            checkpointDue = opsSinceCheckpoint >= checkpointInterval;
+        }
+        try {
+            if (policy != FsyncPolicy.INTERVAL) {
+                commit(seq, policy == FsyncPolicy.ALWAYS);
+            } else if (full) {
+                commit(seq, false);
+            }
+            if (checkpointDue) {
+                checkpoint(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Group commit: returns once record seq has been written (and synced when force is set) by this or another caller.
+    private void commit(long seq, boolean force) throws IOException {
+        if (durableSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long batchSeq = writePending();
+            if (force) {
+                log.force(false);
+                syncs++;
+            }
+            durableSeq = batchSeq;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // hands everything appended so far to the OS, only called with syncLock held
+    private long writePending() throws IOException {
+        ByteBuffer batch;
+        long batchSeq;
+        synchronized (this) {
+            batch = pending.flip();
+            batchSeq = appendedSeq;
+            pending = ByteBuffer.allocate(Math.max(4096, batch.capacity() / 2));
+        }
+        writeFully(log, batch);
+        return batchSeq;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // writes and syncs everything appended so far
+    public void sync() throws IOException {
+        syncLock.lock();
+        try {
+            long batchSeq = writePending();
+            log.force(false);
+            syncs++;
+            durableSeq = batchSeq;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Writes the table to a fresh checkpoint file, syncs it, renames it into place and only then deletes the log
+    // that was moved aside for it.
+    public void checkpoint() throws IOException {
+        checkpoint(true);
+    }
+
+    // Unless forced, does nothing when another thread checkpointed since the caller saw it was due or is doing so now.
+    // Mutations only wait for the copy of the entry references and the switch to a new log, not for the writing.
+    private void checkpoint(boolean force) throws IOException {
+        if (force) {
+            checkpointLock.lock();
+        } else if (!checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            Entry[] entries;
+            syncLock.lock();
+            try {
+                ByteBuffer batch;
+                long batchSeq;
+                synchronized (this) {
+                    if (!force && opsSinceCheckpoint < checkpointInterval) {
+                        return;
+                    }
+                    // the snapshot holds exactly the records appended so far, all of them end up in the old log
+                    entries = snapshot();
+                    batch = pending.flip();
+                    batchSeq = appendedSeq;
+                    pending = ByteBuffer.allocate(Math.max(4096, batch.capacity() / 2));
+                    opsSinceCheckpoint = 0;
+                }
+                swapLog(batch, batchSeq);
+            } finally {
+                syncLock.unlock();
+            }
+
+            writeCheckpoint(entries);
+            Files.delete(directory.resolve(OLD_LOG_FILE));
+            syncDirectory();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // entries of the table, only called holding this or before the table is shared
+    private Entry[] snapshot() {
+        Entry[] entries = new Entry[table.getSize()];
+        int[] count = new int[1];
+        table.forEach(entry -> entries[count[0]++] = entry);
+        return entries;
+    }
+
+    // Writes and syncs the last batch to the log, moves it aside as the old log and starts an empty one. The old log
+    // is synced before any record goes to the new one, so a crash never keeps a later record but loses an earlier one.
+    // Only called with syncLock held.
+    private void swapLog(ByteBuffer batch, long batchSeq) throws IOException {
+        writeFully(log, batch);
+        log.force(false);
+        log.close();
+        syncs++;
+        durableSeq = batchSeq;
+        Files.move(directory.resolve(LOG_FILE), directory.resolve(OLD_LOG_FILE), StandardCopyOption.ATOMIC_MOVE);
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        syncDirectory();
+    }
+
+    private void writeCheckpoint(Entry[] entries) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_PENDING);
+            for (Entry entry : entries) {
+                buffer = putRecord(buffer, INSERT, entry.getKey(), entry.getValue());
+                if (buffer.position() >= MAX_PENDING) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+            }
+            writeFully(channel, buffer.flip());
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    // makes the rename itself durable, not every platform allows opening a directory for that
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    public synchronized int getSize() {
+        return table.getSize();
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    // number of fsyncs of the log, appended mutations per sync show how well group commit batches
+    public long getSyncCount() {
+        syncLock.lock();
+        try {
+            return syncs;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sync();
+        log.close();
+    }
+}
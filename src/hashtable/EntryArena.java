@@ -0,0 +1,179 @@
+package hashtable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Append-only store for whole entries, the counterpart of ValueArena for tables that keep no Entry or String at all.
+// A record is padded to 4 bytes and holds:
+//   key info     2 bytes: number of key chars, the high bit set when they take two bytes each (a char above 0xFF)
+//   value length 2 bytes: length of the UTF-8 value
+//   key chars, then the value bytes
+// A reference is the record position divided by 4, so an int addresses 8 GB of slabs. Records never cross a slab.
+// Space of removed records is only given back by copying the live ones into a new arena.
+public class EntryArena {
+    private static final int SLAB_SHIFT = 20;
+    private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+    private static final int ALIGNMENT_SHIFT = 2;
+    private static final int MAX_SLABS = 1 << (31 + ALIGNMENT_SHIFT - SLAB_SHIFT);
+    private static final int MAX_KEY_LENGTH = 0x7FFF;
+    private static final int MAX_VALUE_LENGTH = 0xFFFF;
+    private static final int UTF16 = 0x8000;
+
+    private final List<byte[]> slabs = new ArrayList<>();
+    private byte[] current;
+    private int position;
+    private long usedBytes;
+
+    public EntryArena() {
+        current = new byte[SLAB_SIZE];
+        slabs.add(current);
+    }
+
+    // returns a reference that stays valid as long as the arena
+    public int add(CharSequence key, String value) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Key longer than " + MAX_KEY_LENGTH + " chars");
+        }
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        if (valueBytes.length > MAX_VALUE_LENGTH) {
+            throw new IllegalArgumentException("Value longer than " + MAX_VALUE_LENGTH + " bytes");
+        }
+
+        boolean latin1 = isLatin1(key);
+        int keyBytes = latin1 ? key.length() : 2 * key.length();
+        int start = allocate(4 + keyBytes + valueBytes.length);
+        int keyInfo = key.length() | (latin1 ? 0 : UTF16);
+        current[start] = (byte) (keyInfo >>> 8);
+        current[start + 1] = (byte) keyInfo;
+        current[start + 2] = (byte) (valueBytes.length >>> 8);
+        current[start + 3] = (byte) valueBytes.length;
+        int offset = start + 4;
+        for (int k = 0; k < key.length(); k++) {
+            char c = key.charAt(k);
+            if (!latin1) {
+                current[offset++] = (byte) (c >>> 8);
+            }
+            current[offset++] = (byte) c;
+        }
+        System.arraycopy(valueBytes, 0, current, offset, valueBytes.length);
+        return reference(start);
+    }
+
+    // copies a record of another arena as it is, for rewriting an arena without its dead records
+    public int copy(EntryArena from, int reference) {
+        byte[] slab = from.slab(reference);
+        int offset = from.offset(reference);
+        int length = recordLength(slab, offset);
+        int start = allocate(length);
+        System.arraycopy(slab, offset, current, start, length);
+        return reference(start);
+    }
+
+    // start of a new record in the current slab, which is replaced when the record does not fit anymore
+    private int allocate(int length) {
+        int padded = (length + (1 << ALIGNMENT_SHIFT) - 1) & -(1 << ALIGNMENT_SHIFT);
+        if (position + padded > SLAB_SIZE) {
+            if (slabs.size() == MAX_SLABS) {
+                throw new IllegalStateException("Arena is full: " + MAX_SLABS + " slabs");
+            }
+            current = new byte[SLAB_SIZE];
+            slabs.add(current);
+            position = 0;
+        }
+        int start = position;
+        position += padded;
+        usedBytes += padded;
+        return start;
+    }
+
+    private int reference(int start) {
+        return (int) ((((long) (slabs.size() - 1) << SLAB_SHIFT) | start) >>> ALIGNMENT_SHIFT);
+    }
+
+    private byte[] slab(int reference) {
+        return slabs.get(reference >>> (SLAB_SHIFT - ALIGNMENT_SHIFT));
+    }
+
+    private int offset(int reference) {
+        return (reference << ALIGNMENT_SHIFT) & (SLAB_SIZE - 1);
+    }
+
+    private static int recordLength(byte[] slab, int offset) {
+        int keyInfo = ((slab[offset] & 0xFF) << 8) | (slab[offset + 1] & 0xFF);
+        int valueLength = ((slab[offset + 2] & 0xFF) << 8) | (slab[offset + 3] & 0xFF);
+        return 4 + keyBytes(keyInfo) + valueLength;
+    }
+
+    private static int keyBytes(int keyInfo) {
+        return ((keyInfo & UTF16) != 0) ? 2 * (keyInfo & ~UTF16) : keyInfo;
+    }
+
+    private static boolean isLatin1(CharSequence key) {
+        for (int k = 0; k < key.length(); k++) {
+            if (key.charAt(k) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // compares the stored key char by char, so a lookup needs no String of its own
+    public boolean keyEquals(int reference, CharSequence key) {
+        byte[] slab = slab(reference);
+        int offset = offset(reference);
+        int keyInfo = ((slab[offset] & 0xFF) << 8) | (slab[offset + 1] & 0xFF);
+        int length = keyInfo & ~UTF16;
+        if (length != key.length()) {
+            return false;
+        }
+        offset += 4;
+        if ((keyInfo & UTF16) == 0) {
+            for (int k = 0; k < length; k++) {
+                if ((char) (slab[offset + k] & 0xFF) != key.charAt(k)) {
+                    return false;
+                }
+            }
+        } else {
+            for (int k = 0; k < length; k++) {
+                if ((char) (((slab[offset + 2 * k] & 0xFF) << 8) | (slab[offset + 2 * k + 1] & 0xFF)) != key.charAt(k)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public String getKey(int reference) {
+        byte[] slab = slab(reference);
+        int offset = offset(reference);
+        int keyInfo = ((slab[offset] & 0xFF) << 8) | (slab[offset + 1] & 0xFF);
+        if ((keyInfo & UTF16) == 0) {
+            return new String(slab, offset + 4, keyInfo, StandardCharsets.ISO_8859_1);
+        }
+        return new String(slab, offset + 4, keyBytes(keyInfo), StandardCharsets.UTF_16BE);
+    }
+
+    public String getValue(int reference) {
+        byte[] slab = slab(reference);
+        int offset = offset(reference);
+        int keyInfo = ((slab[offset] & 0xFF) << 8) | (slab[offset + 1] & 0xFF);
+        int valueLength = ((slab[offset + 2] & 0xFF) << 8) | (slab[offset + 3] & 0xFF);
+        return new String(slab, offset + 4 + keyBytes(keyInfo), valueLength, StandardCharsets.UTF_8);
+    }
+
+    // bytes the record takes in its slab, padding included
+    public int getRecordSize(int reference) {
+        int length = recordLength(slab(reference), offset(reference));
+        return (length + (1 << ALIGNMENT_SHIFT) - 1) & -(1 << ALIGNMENT_SHIFT);
+    }
+
+    // bytes taken by records, live or removed
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getAllocatedBytes() {
+        return (long) slabs.size() * SLAB_SIZE;
+    }
+}
@@ -0,0 +1,29 @@
+package hashtable;
+
+// What a bounded HashTableChaining throws out once it holds its maximum number of entries.
+public enum EvictionPolicy {
+    // second chance: a hand sweeps a ring of the entries and evicts the first one not read since its last visit
+    CLOCK {
+        @Override
+        CachePolicy create(int maxEntries) {
+            return new CachePolicy.Clock(maxEntries);
+        }
+    },
+    // segmented LRU: new entries start on probation and are protected from eviction once they are read again
+    SLRU {
+        @Override
+        CachePolicy create(int maxEntries) {
+            return new CachePolicy.Segmented(maxEntries);
+        }
+    },
+    // W-TinyLFU: a small LRU window in front of a segmented LRU, an entry leaving the window only displaces the
+    // main victim when a frequency sketch says it is read more often
+    W_TINYLFU {
+        @Override
+        CachePolicy create(int maxEntries) {
+            return new CachePolicy.TinyLfu(maxEntries);
+        }
+    };
+
+    abstract CachePolicy create(int maxEntries);
+}
@@ -0,0 +1,33 @@
+package hashtable;
+
+import java.util.function.LongSupplier;
+
+import static hashtable.HashTableChaining.*;
+
+// Entry inserted with a time to live. It links itself into a slot of the table's TimingWheel, so a delete or an
+// overwrite can take it off the wheel in O(1).
+class ExpiringEntry extends Entry {
+    // expiresAt of an entry without a time to live
+    static final long NEVER = Long.MAX_VALUE;
+
+    // in milliseconds of the table's clock
+    final long expiresAt;
+    ExpiringEntry wheelPrev;
+    ExpiringEntry wheelNext;
+    // -1 while the entry is not on the wheel
+    int wheelSlot = -1;
+
+    ExpiringEntry(Entry entry, long expiresAt) {
+        super(entry.getKey(), entry.getValue());
+        this.expiresAt = expiresAt;
+    }
+
+    // only reads the clock for entries that can expire at all
+    static boolean isExpired(Entry entry, LongSupplier clock) {
+        if (!(entry instanceof ExpiringEntry)) {
+            return false;
+        }
+        long expiresAt = ((ExpiringEntry) entry).expiresAt;
+        return expiresAt != NEVER && expiresAt <= clock.getAsLong();
+    }
+}
@@ -0,0 +1,90 @@
+package hashtable;
+
+// Hash functions the tables can be built with. All of them only read the key through length and charAt, so a key
+// probed as bytes through ByteKey hashes exactly like the same key stored as a String.
+public enum HashStrategy {
+    // String.hashCode as it is, cached by every String but poorly mixed in its low bits
+    JAVA {
+        @Override
+        public int hash(CharSequence key) {
+            return ByteKey.hash(key);
+        }
+    },
+    // String.hashCode run through the Murmur3 finalizer, which spreads every bit over the whole word
+    MURMUR3 {
+        @Override
+        public int hash(CharSequence key) {
+            int h = ByteKey.hash(key);
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h;
+        }
+    },
+    // xxHash64 style: lanes of four chars go through a multiply-rotate round, then the xxHash64 avalanche
+    XXHASH {
+        @Override
+        public int hash(CharSequence key) {
+            int length = key.length();
+            long h = PRIME64_5 + length * 2L;
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                long lane = Long.rotateLeft(lane(key, i, 4) * PRIME64_2, 31) * PRIME64_1;
+                h = Long.rotateLeft(h ^ lane, 27) * PRIME64_1 + PRIME64_4;
+            }
+            for (; i < length; i++) {
+                h = Long.rotateLeft(h ^ (key.charAt(i) * PRIME64_5), 11) * PRIME64_1;
+            }
+
+            h ^= h >>> 33;
+            h *= PRIME64_2;
+            h ^= h >>> 29;
+            h *= PRIME64_3;
+            h ^= h >>> 32;
+            return (int) h;
+        }
+    },
+    // wyhash style: two lanes of four chars are multiplied into 128 bits and folded back, once per eight chars
+    WYHASH {
+        @Override
+        public int hash(CharSequence key) {
+            int length = key.length();
+            long seed = WY_SECRET_0 ^ length;
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                seed = mum(lane(key, i, 4) ^ WY_SECRET_1, lane(key, i + 4, 4) ^ seed);
+            }
+
+            int rest = length - i;
+            long a = lane(key, i, Math.min(rest, 4));
+            long b = (rest > 4) ? lane(key, i + 4, rest - 4) : 0;
+            return (int) mum(WY_SECRET_1 ^ length, mum(a ^ WY_SECRET_1, b ^ seed));
+        }
+    };
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+    private static final long WY_SECRET_0 = 0xA0761D6478BD642FL;
+    private static final long WY_SECRET_1 = 0xE7037ED1A0B428DBL;
+
+    public abstract int hash(CharSequence key);
+
+    // up to four chars packed into a long, 16 bits each
+    private static long lane(CharSequence key, int start, int count) {
+        long lane = 0;
+        for (int j = 0; j < count; j++) {
+            lane |= (long) key.charAt(start + j) << (16 * j);
+        }
+        return lane;
+    }
+
+    // 64x64 bit multiply, high and low half folded together
+    private static long mum(long a, long b) {
+        return (a * b) ^ Math.multiplyHigh(a, b);
+    }
+}
@@ -0,0 +1,19 @@
+package hashtable;
+
+import java.util.List;
+
+import static hashtable.HashTableChaining.*;
+
+public interface HashTable {
+    void insert(List<Entry> data);
+
+    void search(List<Entry> data);
+
+    void delete(List<Entry> data);
+
+    void insertValue(Entry entry);
+
+    boolean searchValue(Entry entry);
+
+    boolean deleteValue(Entry entry);
+}
@@ -0,0 +1,286 @@
+package hashtable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static hashtable.HashTableChaining.*;
+
+// Linear probing that keeps no object per entry: a slot is the full hash and an EntryArena reference, keys and values
+// live as bytes in the arena's slabs. Lookups compare the hashes first and only then the key chars in the arena,
+// straight against the caller's CharSequence. Deletes shift the following entries back like HashTablePackedKeys,
+// and the arena is rewritten without the removed records once they take more room than the live ones.
+public class HashTableArena implements HashTable {
+    private static final int EMPTY = -1;
+    // the arena is never rewritten while it is smaller than this, copying a few records would not give anything back
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+
+    private int[] hashes;
+    private int[] references;
+    private EntryArena arena = new EntryArena();
+    // bytes of removed and replaced records still in the arena
+    private long deadBytes;
+    private int capacity;
+    private final float loadFactor;
+    private final HashStrategy hashStrategy;
+    private int size;
+    private int grows;
+    private int compactions;
+
+    // reused by the byte lookups, so probing from a buffer allocates nothing
+    private final ByteKey byteKey = new ByteKey();
+
+    public HashTableArena(int capacity, float loadFactor) {
+        this(capacity, loadFactor, HashStrategy.MURMUR3);
+    }
+
+    public HashTableArena(int capacity, float loadFactor, HashStrategy hashStrategy) {
+        this.capacity = powerOfTwo(Math.max(capacity, 2));
+        this.loadFactor = loadFactor;
+        this.hashStrategy = hashStrategy;
+        hashes = new int[this.capacity];
+        references = new int[this.capacity];
+        Arrays.fill(references, EMPTY);
+        size = 0;
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        put(e.getKey(), e.hash(hashStrategy), e.getValue());
+    }
+
+    // returns true when the key was not in the table yet, otherwise its value is replaced
+    private boolean put(CharSequence key, int h, String value) {
+        if (size + 1 > loadFactor * capacity) {
+            resize();
+        }
+
+        int i = findSlot(key, h);
+        boolean added = references[i] == EMPTY;
+        if (!added) {
+            deadBytes += arena.getRecordSize(references[i]);
+        }
+        hashes[i] = h;
+        references[i] = arena.add(key, value);
+        if (added) {
+            size++;
+        } else {
+            compactIfWasteful();
+        }
+        return added;
+    }
+
+    // the stored hashes place every entry again without reading the arena
+    private void resize() {
+        int[] oldHashes = hashes;
+        int[] oldReferences = references;
+        capacity *= 2;
+        hashes = new int[capacity];
+        references = new int[capacity];
+        Arrays.fill(references, EMPTY);
+        grows++;
+
+        for (int j = 0; j < oldReferences.length; j++) {
+            if (oldReferences[j] != EMPTY) {
+                int i = oldHashes[j] & (capacity - 1);
+                while (references[i] != EMPTY) {
+                    i = (i + 1) & (capacity - 1);
+                }
+                hashes[i] = oldHashes[j];
+                references[i] = oldReferences[j];
+            }
+        }
+    }
+
+    // slot holding the key, or the empty slot where it would go
+    private int findSlot(CharSequence key, int h) {
+        int mask = capacity - 1;
+        int i = h & mask;
+        while (references[i] != EMPTY && (hashes[i] != h || !arena.keyEquals(references[i], key))) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        return references[findSlot(e.getKey(), e.hash(hashStrategy))] != EMPTY;
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        return deleteKey(e.getKey(), e.hash(hashStrategy));
+    }
+
+    private boolean deleteKey(CharSequence key, int h) {
+        int i = findSlot(key, h);
+        if (references[i] == EMPTY) {
+            return false;
+        }
+        deadBytes += arena.getRecordSize(references[i]);
+
+        // moves back every following entry whose home slot is not between the gap and its current slot
+        int mask = capacity - 1;
+        int next = (i + 1) & mask;
+        while (references[next] != EMPTY) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                hashes[i] = hashes[next];
+                references[i] = references[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        references[i] = EMPTY;
+        size--;
+        compactIfWasteful();
+        return true;
+    }
+
+    // Copies the live records into a new arena once the dead ones outweigh them, so churn cannot grow the arena
+    // without bound. Like a resize it touches every entry, and like a resize it is paid for by the removals before it.
+    private void compactIfWasteful() {
+        long used = arena.getUsedBytes();
+        if (used < MIN_COMPACTION_BYTES || deadBytes <= used - deadBytes) {
+            return;
+        }
+
+        EntryArena compacted = new EntryArena();
+        for (int i = 0; i < capacity; i++) {
+            if (references[i] != EMPTY) {
+                references[i] = compacted.copy(arena, references[i]);
+            }
+        }
+        arena = compacted;
+        deadBytes = 0;
+        compactions++;
+    }
+
+    private String getValue(CharSequence key, int h) {
+        int reference = references[findSlot(key, h)];
+        return (reference == EMPTY) ? null : arena.getValue(reference);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    // builds an Entry for every live slot, the table itself keeps none
+    public void forEach(Consumer<Entry> action) {
+        for (int i = 0; i < capacity; i++) {
+            if (references[i] != EMPTY) {
+                action.accept(new Entry(arena.getKey(references[i]), arena.getValue(references[i])));
+            }
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // deletes shift entries back instead of leaving tombstones, compactions count the rewrites of the arena
+    public HashTableStats getStats() {
+        return new HashTableStats(size, capacity, 0, grows, 0, compactions);
+    }
+
+    public HashStrategy getHashStrategy() {
+        return hashStrategy;
+    }
+
+    // slabs of the arena plus the two slot arrays
+    public long getAllocatedBytes() {
+        return arena.getAllocatedBytes() + 8L * capacity;
+    }
+
+    public void printHashTableContent() {
+        for (int i = 0; i < capacity; i++) {
+            if (references[i] == EMPTY) {
+                System.out.println(i + ".");
+            } else {
+                System.out.println(i + ". " + arena.getKey(references[i]) + " " + arena.getValue(references[i]));
+            }
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+
+    public void insertValue(CharSequence key, String value) {
+        put(key, hashStrategy.hash(key), value);
+    }
+
+    public boolean searchValue(CharSequence key) {
+        return references[findSlot(key, hashStrategy.hash(key))] != EMPTY;
+    }
+
+    public String get(CharSequence key) {
+        return getValue(key, hashStrategy.hash(key));
+    }
+
+    public boolean deleteValue(CharSequence key) {
+        return deleteKey(key, hashStrategy.hash(key));
+    }
+
+    public boolean searchValue(byte[] key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(byte[] key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(byte[] key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
+
+    public boolean searchValue(ByteBuffer key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(ByteBuffer key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(ByteBuffer key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
+}
@@ -1,12 +1,21 @@
 package hashtable;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
 
-public class HashTableChaining {
+public class HashTableChaining implements HashTable {
     public static class Entry {
         private final String key;
         private final String value;
+        // last computed hash in the low 32 bits, ordinal + 1 of its strategy in the high ones (0 = nothing cached);
+        // a plain cache for the single-threaded tables, the concurrent ones compute their hashes themselves
+        private long cachedHash;
 
         public Entry(String key, String value) {
             this.key = key;
@@ -20,81 +29,474 @@ public class HashTableChaining {
         public String getValue() {
             return value;
         }
+
+        public int hash(HashStrategy strategy) {
+            long cached = cachedHash;
+            if ((int) (cached >>> 32) == strategy.ordinal() + 1) {
+                return (int) cached;
+            }
+            int h = strategy.hash(key);
+            cachedHash = ((long) (strategy.ordinal() + 1) << 32) | (h & 0xFFFFFFFFL);
+            return h;
+        }
     }
 
+    // buckets moved from the old bucket list by every operation while an incremental resize is running
+    private static final int REHASH_STEP = 2;
+    // like java.util.HashMap, a chain turns into a tree once it reaches TREEIFY_THRESHOLD entries and back into a list
+    // when it shrinks to UNTREEIFY_THRESHOLD; an insert that makes a chain that long in a table below
+    // MIN_TREEIFY_CAPACITY doubles the table instead, as HashMap.treeifyBin does
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+    // a delete shrinks the table once the live entries fill less than this share of the load factor
+    private static final float SHRINK_RATIO = 0.25f;
+    // keys resolved together by a batch search
+    private static final int BATCH_WINDOW = 16;
+    // marks the keys of a batch window the filter rejected, no real bucket is ever this list
+    private static final List<Entry> REJECTED = Collections.emptyList();
+    // units of expiry work every insert and delete does on the timing wheel, see TimingWheel.advance
+    private static final int EXPIRE_STEP = 4;
+    private static final long TICK_MILLIS = 1;
+
+    // buckets are created lazily, a null bucket is an empty one
     private List<List<Entry>> bucketList = new ArrayList<>();
+    // always a power of two, so a bucket is picked by masking the hash instead of dividing
     private int capacity;
     private final float loadFactor;
+    private final HashStrategy hashStrategy;
     private int size;
+    // the table never shrinks below the capacity it was created with
+    private final int minCapacity;
+    private int grows;
+    private int shrinks;
+
+    private boolean incrementalResize;
+    // grows that are not incremental are rehashed by fork-join tasks, one per region of the new bucket list
+    private boolean parallelResize;
+    // bucket list being drained during an incremental resize, null otherwise
+    private List<List<Entry>> oldBucketList;
+    private int oldCapacity;
+    private int rehashIndex;
+
+    // reused by the byte lookups, so probing from a buffer allocates nothing
+    private final ByteKey byteKey = new ByteKey();
+    // written after every batch, so the loads that only warm the cache cannot be optimized away
+    private int batchSink;
+
+    // bounded cache mode, null for a plain table
+    private final EvictionPolicy evictionPolicy;
+    private final CachePolicy cachePolicy;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // created by the first insert with a time to live
+    private TimingWheel wheel;
+    private LongSupplier clock = TimingWheel::systemMillis;
+    private final Consumer<ExpiringEntry> expirer = this::expired;
+    private long expirations;
+
+    // negative lookup filter, null when it is off
+    private CountingBloomFilter filter;
 
     public HashTableChaining(int capacity, float loadFactor) {
-        this.capacity = capacity;
+        this(capacity, loadFactor, HashStrategy.MURMUR3);
+    }
+
+    public HashTableChaining(int capacity, float loadFactor, HashStrategy hashStrategy) {
+        this(capacity, loadFactor, hashStrategy, null, 0);
+    }
+
+    // Bounded cache holding at most maxEntries entries: inserting a new key into a full table evicts the entry the
+    // policy picks, lookups count hits and misses.
+    public HashTableChaining(int capacity, float loadFactor, EvictionPolicy evictionPolicy, int maxEntries) {
+        this(capacity, loadFactor, HashStrategy.MURMUR3, evictionPolicy, maxEntries);
+    }
+
+    public HashTableChaining(int capacity, float loadFactor, HashStrategy hashStrategy, EvictionPolicy evictionPolicy, int maxEntries) {
+        if (evictionPolicy != null && maxEntries < 1) {
+            throw new IllegalArgumentException("A cache needs room for at least one entry: " + maxEntries);
+        }
+        this.capacity = powerOfTwo(capacity);
+        this.minCapacity = this.capacity;
         this.loadFactor = loadFactor;
+        this.hashStrategy = hashStrategy;
+        this.evictionPolicy = evictionPolicy;
+        this.cachePolicy = (evictionPolicy == null) ? null : evictionPolicy.create(maxEntries);
         size = 0;
-        for (int i = 0; i < capacity; i++) {
+        for (int i = 0; i < this.capacity; i++) {
             bucketList.add(new ArrayList<>());
         }
     }
 
+    @Override
     public void insert(List<Entry> data) {
         for (Entry e : data) {
-            insertEntry(e);
+            insertEntry(e, ExpiringEntry.NEVER);
         }
     }
 
-    private void insertEntry(Entry e) {
-        if ((float) size / capacity >= loadFactor) {
-            resize();
+    public void bulkLoad(List<Entry> data) {
+        bulkLoad(data, false);
+    }
+
+    // Inserts all entries after growing the table once to the capacity they need, instead of doubling its way up from
+    // the current one. In parallel, that grow and the inserts are done by fork-join tasks that each own one region of
+    // buckets, see RegionPartition; like insertEntry, the first entry of a key wins. A cache or a table holding
+    // entries with a time to live is filled entry by entry after the grow.
+    public void bulkLoad(List<Entry> data, boolean parallel) {
+        finishRehash(parallel);
+        if (cachePolicy != null) {
+            insert(data);
+            return;
+        }
+        long needed = (long) ((size + (long) data.size()) / loadFactor) + 1;
+        int newCapacity = powerOfTwo((int) Math.min(needed, 1 << 30));
+        if (newCapacity > capacity) {
+            resize(newCapacity, parallel);
+            finishRehash(parallel);
         }
 
-        int i = hash(e);
-        List<Entry> bucket = bucketList.get(i);
+        int regions = RegionPartition.regions(capacity);
+        if (!parallel || wheel != null || regions == 1) {
+            insert(data);
+            return;
+        }
+        RegionPartition partition = RegionPartition.of(data, hashStrategy, capacity, regions);
+        int[] added = new int[regions];
+        IntStream.range(0, regions).parallel().forEach(r -> added[r] = loadRegion(partition, r));
+        for (int count : added) {
+            size += count;
+        }
+        if (filter != null) {
+            rebuildFilter((int) Math.max(size, capacity * loadFactor));
+        }
+    }
 
-        for (Entry entry : bucket) {
-            if (entry.getKey().equals(e.getKey())) {
+    // only touches the buckets of region r, so the regions can be loaded concurrently
+    private int loadRegion(RegionPartition partition, int r) {
+        int added = 0;
+        for (int j = partition.starts[r]; j < partition.starts[r + 1]; j++) {
+            int i = partition.hashes[j] & (capacity - 1);
+            if (findInBucket(bucketList.get(i), partition.entries[j].getKey()) == null) {
+                addToBucket(i, partition.entries[j]);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void insertEntry(Entry e, long expiresAt) {
+        expireStep();
+        if ((float) size / capacity >= loadFactor) {
+            if (isRehashing()) {
+                finishRehash();
+            }
+            resize(capacity * 2);
+        }
+        rehashStep();
+
+        int h = e.hash(hashStrategy);
+        Entry existing = findInBucket(bucketList.get(h & (capacity - 1)), e.getKey());
+        if (existing == null && isRehashing()) {
+            existing = findInBucket(oldBucketList.get(h & (oldCapacity - 1)), e.getKey());
+        }
+        if (existing != null) {
+            // an expired entry the wheel has not reached yet must not keep the key
+            if (!isExpired(existing)) {
                 return;
             }
+            forget(removeKey(e.getKey(), h));
+            expirations++;
         }
 
-        bucket.add(e);
+        Entry stored = e;
+        if (cachePolicy != null) {
+            stored = new CacheNode(e, h, expiresAt);
+        } else if (expiresAt != ExpiringEntry.NEVER) {
+            stored = new ExpiringEntry(e, expiresAt);
+        }
+        addToBucket(h & (capacity - 1), stored);
         size++;
+        if (filter != null) {
+            filter.add(h);
+        }
+        if (expiresAt != ExpiringEntry.NEVER) {
+            wheel.schedule((ExpiringEntry) stored);
+        }
+
+        if (cachePolicy != null) {
+            CacheNode victim = cachePolicy.add((CacheNode) stored);
+            if (victim != null) {
+                unschedule(victim);
+                removeKey(victim.getKey(), victim.hash);
+                evictions++;
+            }
+        }
+
+        // a small table splits a long chain by growing until it is big enough for the chain to become a tree
+        if (capacity < MIN_TREEIFY_CAPACITY) {
+            List<Entry> bucket = bucketList.get(h & (capacity - 1));
+            if (bucket != null && bucket.size() >= TREEIFY_THRESHOLD) {
+                finishRehash();
+                resize(capacity * 2);
+            }
+        }
     }
 
-    private void resize() {
-        capacity *= 2;
-        List<List<Entry>> newBucketList = new ArrayList<>();
+    private void addToBucket(int i, Entry e) {
+        List<Entry> bucket = bucketList.get(i);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            bucketList.set(i, bucket);
+        }
 
-        for (int i = 0; i < capacity; i++) {
-            newBucketList.add(new ArrayList<>());
+        bucket.add(e);
+        if (!(bucket instanceof TreeBucket) && bucket.size() >= TREEIFY_THRESHOLD && capacity >= MIN_TREEIFY_CAPACITY) {
+            bucketList.set(i, new TreeBucket(bucket));
         }
+    }
 
-        for (List<Entry> bucket : bucketList) {
-            for (Entry entry : bucket) {
-                int i = hash(entry);
-                newBucketList.get(i).add(entry);
+    private void resize(int newCapacity) {
+        resize(newCapacity, parallelResize);
+    }
+
+    private void resize(int newCapacity, boolean parallel) {
+        if (newCapacity > capacity) {
+            grows++;
+            // sized for the new capacity, so the false positive rate stays put as the table grows
+            if (filter != null) {
+                rebuildFilter((int) (newCapacity * loadFactor));
+            }
+        } else {
+            shrinks++;
+        }
+
+        oldBucketList = bucketList;
+        oldCapacity = capacity;
+        rehashIndex = 0;
+
+        capacity = newCapacity;
+        bucketList = new ArrayList<>(Collections.nCopies(capacity, null));
+
+        if (!incrementalResize) {
+            finishRehash(parallel);
+        }
+    }
+
+    // Moves a bounded number of old buckets into the new bucket list, so no single operation pays for the whole
+    // resize. Like Redis, a step also gives up after visiting too many empty buckets.
+    private void rehashStep() {
+        if (!isRehashing()) {
+            return;
+        }
+
+        int moved = 0;
+        int emptyVisits = REHASH_STEP * 10;
+        while (moved < REHASH_STEP && rehashIndex < oldCapacity) {
+            List<Entry> bucket = oldBucketList.get(rehashIndex);
+            if (bucket == null || bucket.isEmpty()) {
+                rehashIndex++;
+                if (--emptyVisits == 0) {
+                    break;
+                }
+                continue;
             }
+            migrateBucket(rehashIndex);
+            rehashIndex++;
+            moved++;
+        }
+
+        if (rehashIndex == oldCapacity) {
+            oldBucketList = null;
+        }
+    }
+
+    private void finishRehash() {
+        finishRehash(parallelResize);
+    }
+
+    private void finishRehash(boolean parallel) {
+        if (!isRehashing()) {
+            return;
+        }
+        // only a grow that has not started draining can be split by destination region
+        if (parallel && capacity > oldCapacity && rehashIndex == 0 && RegionPartition.regions(capacity) > 1) {
+            migrateInParallel();
+            return;
+        }
+
+        for (; rehashIndex < oldCapacity; rehashIndex++) {
+            migrateBucket(rehashIndex);
+        }
+        oldBucketList = null;
+    }
+
+    private void migrateBucket(int index) {
+        List<Entry> bucket = oldBucketList.get(index);
+        if (bucket == null) {
+            return;
         }
 
-        bucketList = newBucketList;
+        for (Entry entry : bucket) {
+            addToBucket(entry.hash(hashStrategy) & (capacity - 1), entry);
+        }
+        oldBucketList.set(index, null);
+    }
+
+    // Every task fills one region of the new bucket list from the old buckets whose entries can land there: after a
+    // grow, new bucket i only receives entries from old bucket i & (oldCapacity - 1). Old buckets are only read.
+    private void migrateInParallel() {
+        int regions = RegionPartition.regions(capacity);
+        int shift = RegionPartition.regionShift(capacity, regions);
+        int regionSize = 1 << shift;
+        IntStream.range(0, regions).parallel().forEach(r -> {
+            int from = (regionSize >= oldCapacity) ? 0 : (r << shift) & (oldCapacity - 1);
+            int to = from + Math.min(regionSize, oldCapacity);
+            for (int j = from; j < to; j++) {
+                List<Entry> bucket = oldBucketList.get(j);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    int i = entry.hash(hashStrategy) & (capacity - 1);
+                    if (i >>> shift == r) {
+                        addToBucket(i, entry);
+                    }
+                }
+            }
+        });
+        rehashIndex = oldCapacity;
+        oldBucketList = null;
+    }
+
+    public boolean isRehashing() {
+        return oldBucketList != null;
     }
 
+    @Override
     public void search(List<Entry> data) {
-        for (Entry e : data) {
-            searchEntry(e);
+        searchBatch(data, BATCH_WINDOW);
+    }
+
+    public BitSet searchBatch(List<Entry> data) {
+        return searchBatch(data, BATCH_WINDOW);
+    }
+
+    // Group prefetching like HashTableLinearProbing.searchBatch: hash a window of keys, load their buckets, load the
+    // first entry of every bucket, then resolve. Bit i of the result is set when data.get(i) was found.
+    public BitSet searchBatch(List<Entry> data, int window) {
+        BitSet found = new BitSet(data.size());
+        if (isRehashing()) {
+            for (int j = 0; j < data.size(); j++) {
+                if (searchEntry(data.get(j))) {
+                    found.set(j);
+                }
+            }
+            return found;
+        }
+
+        int[] hashes = new int[window];
+        List<List<Entry>> buckets = new ArrayList<>(Collections.nCopies(window, null));
+        for (int start = 0; start < data.size(); start += window) {
+            searchWindow(data, start, Math.min(window, data.size() - start), hashes, buckets, found);
+        }
+        return found;
+    }
+
+    // kept apart from the loop over windows, so it is compiled as a normal method and not only on stack replacement
+    private void searchWindow(List<Entry> data, int start, int count, int[] hashes, List<List<Entry>> buckets, BitSet found) {
+        for (int j = 0; j < count; j++) {
+            hashes[j] = data.get(start + j).hash(hashStrategy);
+        }
+        for (int j = 0; j < count; j++) {
+            boolean rejected = filter != null && !filter.mightContain(hashes[j]);
+            buckets.set(j, rejected ? REJECTED : bucketList.get(hashes[j] & (capacity - 1)));
+        }
+        int touched = 0;
+        for (int j = 0; j < count; j++) {
+            List<Entry> bucket = buckets.get(j);
+            // tree buckets are left alone, reaching their first entry is a walk of its own
+            if (bucket instanceof ArrayList && !bucket.isEmpty()) {
+                touched += bucket.get(0).getKey().length();
+            }
+        }
+        batchSink += touched;
+        for (int j = 0; j < count; j++) {
+            Entry entry = findInBucket(buckets.get(j), data.get(start + j).getKey());
+            if (entry == null && filter != null && buckets.get(j) != REJECTED) {
+                filter.falsePositive();
+            }
+            // expired entries count as missing but are left to the wheel, removing one could resize under the window
+            if (entry != null && isExpired(entry)) {
+                entry = null;
+            }
+            if (cachePolicy != null) {
+                recordLookup(entry, hashes[j]);
+            }
+            if (entry != null) {
+                found.set(start + j);
+            }
         }
     }
 
     private boolean searchEntry(Entry e) {
-        int i = hash(e);
-        List<Entry> entryList = bucketList.get(i);
+        return findEntry(e.getKey(), e.hash(hashStrategy)) != null;
+    }
+
+    private Entry findEntry(CharSequence key, int h) {
+        rehashStep();
+        if (filter != null && !filter.mightContain(h)) {
+            if (cachePolicy != null) {
+                recordLookup(null, h);
+            }
+            return null;
+        }
+        Entry entry = findInBucket(bucketList.get(h & (capacity - 1)), key);
+        if (entry == null && isRehashing()) {
+            entry = findInBucket(oldBucketList.get(h & (oldCapacity - 1)), key);
+        }
+        if (entry == null && filter != null) {
+            filter.falsePositive();
+        }
+        if (entry != null && isExpired(entry)) {
+            forget(removeKey(key, h));
+            expirations++;
+            entry = null;
+        }
+        if (cachePolicy != null) {
+            recordLookup(entry, h);
+        }
+        return entry;
+    }
+
+    private void recordLookup(Entry entry, int h) {
+        if (entry == null) {
+            misses++;
+            cachePolicy.miss(h);
+        } else {
+            hits++;
+            cachePolicy.access((CacheNode) entry);
+        }
+    }
+
+    private Entry findInBucket(List<Entry> entryList, CharSequence key) {
+        if (entryList == null) {
+            return null;
+        }
+        if (entryList instanceof TreeBucket) {
+            return ((TreeBucket) entryList).find(key);
+        }
         for (Entry entry : entryList) {
-            if (entry.getKey().equals(e.getKey())) {
-                return true;
+            if (entry.getKey().contentEquals(key)) {
+                return entry;
             }
         }
-        return false;
+        return null;
     }
 
+    @Override
     public void delete(List<Entry> data) {
         for (Entry e : data) {
             deleteEntry(e);
@@ -102,43 +504,375 @@ public class HashTableChaining {
     }
 
     private boolean deleteEntry(Entry e) {
-        int i = hash(e);
-        List<Entry> entryList = bucketList.get(i);
+        return deleteKey(e.getKey(), e.hash(hashStrategy));
+    }
 
+    private boolean deleteKey(CharSequence key, int h) {
+        expireStep();
+        Entry removed = removeKey(key, h);
+        forget(removed);
+        // an expired entry was gone already as far as the caller can tell
+        if (removed != null && isExpired(removed)) {
+            expirations++;
+            return false;
+        }
+        return removed != null;
+    }
+
+    // takes an entry removed from the buckets off the wheel and out of the eviction policy
+    private void forget(Entry removed) {
+        if (removed == null) {
+            return;
+        }
+        unschedule(removed);
+        if (cachePolicy != null) {
+            cachePolicy.remove((CacheNode) removed);
+        }
+    }
+
+    private void unschedule(Entry entry) {
+        if (wheel != null && entry instanceof ExpiringEntry) {
+            wheel.cancel((ExpiringEntry) entry);
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ExpiringEntry.isExpired(entry, clock);
+    }
+
+    private void expireStep() {
+        if (wheel != null) {
+            wheel.advance(clock.getAsLong(), EXPIRE_STEP, expirer);
+        }
+    }
+
+    // called by the wheel for every due entry, which it has already taken off the wheel
+    private void expired(ExpiringEntry entry) {
+        Entry removed = removeKey(entry.getKey(), entry.hash(hashStrategy));
+        if (removed != null) {
+            if (cachePolicy != null) {
+                cachePolicy.remove((CacheNode) removed);
+            }
+            expirations++;
+        }
+    }
+
+    // the removed entry, null when the key is missing
+    private Entry removeKey(CharSequence key, int h) {
+        rehashStep();
+        Entry removed = removeFromBucket(bucketList, h & (capacity - 1), key);
+        if (removed == null && isRehashing()) {
+            removed = removeFromBucket(oldBucketList, h & (oldCapacity - 1), key);
+        }
+        if (removed != null) {
+            size--;
+            if (filter != null) {
+                filter.remove(h);
+            }
+            // halves a table that a purge left mostly empty, incrementally when incremental resizing is on
+            if (!isRehashing() && capacity > minCapacity && size < loadFactor * capacity * SHRINK_RATIO) {
+                resize(capacity / 2);
+            }
+        }
+        return removed;
+    }
+
+    private Entry removeFromBucket(List<List<Entry>> bucketList, int i, CharSequence key) {
+        List<Entry> entryList = bucketList.get(i);
+        if (entryList == null) {
+            return null;
+        }
+        if (entryList instanceof TreeBucket) {
+            Entry removed = ((TreeBucket) entryList).remove(key);
+            if (removed != null && entryList.size() <= UNTREEIFY_THRESHOLD) {
+                bucketList.set(i, new ArrayList<>(entryList));
+            }
+            return removed;
+        }
         for (int j = 0; j < entryList.size(); j++) {
             Entry entry = entryList.get(j);
-            if (entry.getKey().equals(e.getKey())) {
-                entryList.remove(entryList.get(j));
-                size--;
-                return true;
+            if (entry.getKey().contentEquals(key)) {
+                return entryList.remove(j);
+            }
+        }
+        return null;
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // chaining leaves no tombstones behind, so only grows and shrinks are reported
+    public HashTableStats getStats() {
+        return new HashTableStats(size, capacity, 0, grows, shrinks, 0);
+    }
+
+    public HashStrategy getHashStrategy() {
+        return hashStrategy;
+    }
+
+    // Keeps a counting Bloom filter of the keys beside the table, so most lookups of missing keys return before a
+    // bucket is touched. Turning it on builds it from the current entries, turning it off drops it.
+    public void setNegativeLookupFilter(boolean enabled) {
+        if (!enabled) {
+            filter = null;
+        } else if (filter == null) {
+            rebuildFilter((int) Math.max(size, capacity * loadFactor));
+        }
+    }
+
+    // null when the filter is off
+    public CountingBloomFilter getNegativeLookupFilter() {
+        return filter;
+    }
+
+    private void rebuildFilter(int expectedEntries) {
+        CountingBloomFilter rebuilt = new CountingBloomFilter(expectedEntries);
+        if (filter != null) {
+            rebuilt.carryCounters(filter);
+        }
+        addToFilter(rebuilt, bucketList);
+        if (isRehashing()) {
+            addToFilter(rebuilt, oldBucketList);
+        }
+        filter = rebuilt;
+    }
+
+    private void addToFilter(CountingBloomFilter filter, List<List<Entry>> bucketList) {
+        for (List<Entry> bucket : bucketList) {
+            if (bucket != null) {
+                for (Entry entry : bucket) {
+                    filter.add(entry.hash(hashStrategy));
+                }
             }
         }
-        return false;
     }
 
-    private int hash(Entry e) {
-        return Math.abs(e.getKey().hashCode() % capacity);
+    // null for a plain table
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    // hit, miss and eviction counters of a bounded table, null for a plain one
+    public CacheStats getCacheStats() {
+        if (cachePolicy == null) {
+            return null;
+        }
+        return new CacheStats(hits, misses, evictions, size, cachePolicy.maxEntries);
+    }
+
+    // Cursor based iteration like Redis SCAN. Start with cursor 0 and pass every returned cursor back in until it is 0
+    // again; each call appends the entries of whole buckets to batch until it holds at least count more. Buckets are
+    // visited in reverse-binary order of their index, so a resize between calls only splits or merges buckets the
+    // cursor has or has not visited yet: every entry present for the whole scan is returned at least once, entries
+    // that were moved around may be returned twice. The table can be changed freely between calls.
+    public int scan(int cursor, int count, List<Entry> batch) {
+        int target = batch.size() + count;
+        do {
+            cursor = scanStep(cursor, batch);
+        } while (cursor != 0 && batch.size() < target);
+        return cursor;
+    }
+
+    private int scanStep(int v, List<Entry> batch) {
+        if (!isRehashing()) {
+            int mask = capacity - 1;
+            scanBucket(bucketList.get(v & mask), batch);
+            return nextCursor(v, mask);
+        }
+
+        // both bucket lists are live: the bucket of the smaller one, then every bucket of the larger one it splits into
+        List<List<Entry>> small = bucketList;
+        List<List<Entry>> large = oldBucketList;
+        int smallMask = capacity - 1;
+        int largeMask = oldCapacity - 1;
+        if (oldCapacity < capacity) {
+            small = oldBucketList;
+            large = bucketList;
+            smallMask = oldCapacity - 1;
+            largeMask = capacity - 1;
+        }
+
+        scanBucket(small.get(v & smallMask), batch);
+        do {
+            scanBucket(large.get(v & largeMask), batch);
+            v = nextCursor(v, largeMask);
+        } while ((v & (smallMask ^ largeMask)) != 0);
+        return v;
+    }
+
+    // increments the bits under the mask in reverse order, the bits above it are carried out
+    private static int nextCursor(int v, int mask) {
+        v |= ~mask;
+        v = Integer.reverse(v);
+        v++;
+        return Integer.reverse(v);
+    }
+
+    private void scanBucket(List<Entry> bucket, List<Entry> batch) {
+        if (bucket == null) {
+            return;
+        }
+        for (Entry entry : bucket) {
+            if (!isExpired(entry)) {
+                batch.add(entry);
+            }
+        }
+    }
+
+    // number of buckets holding 0, 1, ... entries, the last cell counts every longer chain
+    public int[] getChainLengthHistogram(int maxLength) {
+        int[] histogram = new int[maxLength + 1];
+        for (List<Entry> bucket : bucketList) {
+            int length = (bucket == null) ? 0 : bucket.size();
+            histogram[Math.min(length, maxLength)]++;
+        }
+        return histogram;
+    }
+
+    public int getTreeBucketCount() {
+        int count = 0;
+        for (List<Entry> bucket : bucketList) {
+            if (bucket instanceof TreeBucket) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void setParallelResize(boolean parallelResize) {
+        this.parallelResize = parallelResize;
+    }
+
+    public void setIncrementalResize(boolean incrementalResize) {
+        this.incrementalResize = incrementalResize;
+        if (!incrementalResize) {
+            finishRehash();
+        }
     }
 
     public void printHashTableContent() {
+        if (isRehashing()) {
+            System.out.println("old buckets:");
+            printBuckets(oldBucketList);
+            System.out.println("new buckets:");
+        }
+        printBuckets(bucketList);
+    }
+
+    private void printBuckets(List<List<Entry>> bucketList) {
         for (int i = 0; i < bucketList.size(); i++) {
             System.out.print(i + ". ");
-            for (int j = 0; j < bucketList.get(i).size(); j++) {
-                System.out.print(bucketList.get(i).get(j).getKey() + " " + bucketList.get(i).get(j).getValue() + "; ");
+            List<Entry> bucket = bucketList.get(i);
+            if (bucket != null) {
+                for (Entry entry : bucket) {
+                    System.out.print(entry.getKey() + " " + entry.getValue() + "; ");
+                }
             }
             System.out.println();
         }
     }
 
+    @Override
     public void insertValue(Entry entry) {
-        insertEntry(entry);
+        insertEntry(entry, ExpiringEntry.NEVER);
     }
 
+    // The entry is dropped ttlMillis after the insert: lookups treat it as missing from then on and remove it, and
+    // the timing wheel removes it proactively, a few entries on every insert and delete or more through expire.
+    public void insertValue(Entry entry, long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Negative time to live: " + ttlMillis);
+        }
+        long now = clock.getAsLong();
+        if (wheel == null) {
+            wheel = new TimingWheel(TICK_MILLIS, now);
+        }
+        long expiresAt = now + ttlMillis;
+        insertEntry(entry, (expiresAt < now || expiresAt == ExpiringEntry.NEVER) ? ExpiringEntry.NEVER - 1 : expiresAt);
+    }
+
+    // Expires due entries with at most budget units of work and returns how many were removed. Meant for a periodic
+    // maintenance call when inserts and deletes are too rare to keep up with the expiring entries.
+    public int expire(int budget) {
+        if (wheel == null) {
+            return 0;
+        }
+        long before = expirations;
+        wheel.advance(clock.getAsLong(), budget, expirer);
+        return (int) (expirations - before);
+    }
+
+    // entries removed because their time to live ran out, lazily or by the wheel
+    public long getExpirations() {
+        return expirations;
+    }
+
+    // Milliseconds used for every time to live, System.nanoTime based by default. Only settable before the first
+    // insert with a time to live, the wheel keeps positions relative to it.
+    public void setClock(LongSupplier clock) {
+        if (wheel != null) {
+            throw new IllegalStateException("The clock has to be set before the first insert with a time to live");
+        }
+        this.clock = clock;
+    }
+
+    @Override
     public boolean searchValue(Entry entry) {
         return searchEntry(entry);
     }
 
+    @Override
     public boolean deleteValue(Entry entry) {
         return deleteEntry(entry);
     }
+
+    public boolean searchValue(CharSequence key) {
+        return findEntry(key, hashStrategy.hash(key)) != null;
+    }
+
+    public String get(CharSequence key) {
+        Entry entry = findEntry(key, hashStrategy.hash(key));
+        return (entry == null) ? null : entry.getValue();
+    }
+
+    public boolean deleteValue(CharSequence key) {
+        return deleteKey(key, hashStrategy.hash(key));
+    }
+
+    public boolean searchValue(byte[] key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(byte[] key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(byte[] key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
+
+    public boolean searchValue(ByteBuffer key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(ByteBuffer key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(ByteBuffer key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
 }
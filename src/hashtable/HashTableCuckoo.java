@@ -0,0 +1,279 @@
+package hashtable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static hashtable.HashTableChaining.*;
+
+// Bucketized cuckoo hashing: every key lives in one of two 4-slot buckets picked by two independent hash functions,
+// or in a small stash when an insert runs into a cycle. A lookup therefore reads at most two buckets and the stash.
+public class HashTableCuckoo implements HashTable {
+    private static final int BUCKET_SIZE = 4;
+    private static final int STASH_SIZE = 4;
+    private static final int MAX_KICKS = 500;
+
+    private Entry[] slots;
+    // both hashes of every slot, so lookups can skip equals and kicks can find the other bucket without rehashing
+    private int[] firstHashes;
+    private int[] secondHashes;
+    private final Entry[] stash = new Entry[STASH_SIZE];
+    private int stashSize;
+    private int buckets;
+    private final float loadFactor;
+    private int size;
+    private final Random random = new Random();
+
+    public HashTableCuckoo(int capacity, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(powerOfTwo(Math.max(1, capacity / BUCKET_SIZE)));
+    }
+
+    private void allocate(int buckets) {
+        this.buckets = buckets;
+        slots = new Entry[buckets * BUCKET_SIZE];
+        firstHashes = new int[buckets * BUCKET_SIZE];
+        secondHashes = new int[buckets * BUCKET_SIZE];
+        Arrays.fill(stash, null);
+        stashSize = 0;
+        size = 0;
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        int h1 = firstHash(e.getKey());
+        int h2 = secondHash(e.getKey());
+        int i = findSlot(e.getKey(), h1, h2);
+        if (i >= 0) {
+            slots[i] = e;
+            return;
+        }
+        if (i < -1) {
+            stash[-i - 2] = e;
+            return;
+        }
+
+        if (size + 1 > loadFactor * slots.length) {
+            rehash(buckets * 2, null);
+        }
+
+        Entry homeless = place(e, h1, h2);
+        if (homeless == null) {
+            size++;
+        } else {
+            rehash(buckets * 2, homeless);
+        }
+    }
+
+    // Kicks residents to their other bucket until a free slot turns up. The entry left homeless after MAX_KICKS
+    // goes to the stash; with a full stash it is returned and the caller has to rehash.
+    private Entry place(Entry e, int h1, int h2) {
+        int bucket = h1 & (buckets - 1);
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            if (placeInBucket(bucket, e, h1, h2) || placeInBucket(h2 & (buckets - 1), e, h1, h2)) {
+                return null;
+            }
+
+            int victim = bucket * BUCKET_SIZE + random.nextInt(BUCKET_SIZE);
+            Entry help = slots[victim];
+            int helpH1 = firstHashes[victim];
+            int helpH2 = secondHashes[victim];
+            slots[victim] = e;
+            firstHashes[victim] = h1;
+            secondHashes[victim] = h2;
+
+            e = help;
+            h1 = helpH1;
+            h2 = helpH2;
+            int first = h1 & (buckets - 1);
+            bucket = (first == bucket) ? h2 & (buckets - 1) : first;
+        }
+
+        if (stashSize < STASH_SIZE) {
+            stash[stashSize++] = e;
+            return null;
+        }
+        return e;
+    }
+
+    private boolean placeInBucket(int bucket, Entry e, int h1, int h2) {
+        int base = bucket * BUCKET_SIZE;
+        for (int j = 0; j < BUCKET_SIZE; j++) {
+            if (slots[base + j] == null) {
+                slots[base + j] = e;
+                firstHashes[base + j] = h1;
+                secondHashes[base + j] = h2;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // keeps doubling until every old entry, the stash and the homeless entry fit
+    private void rehash(int newBuckets, Entry homeless) {
+        Entry[] oldSlots = slots;
+        Entry[] oldStash = Arrays.copyOf(stash, stashSize);
+
+        while (true) {
+            allocate(newBuckets);
+            if (reinsert(oldSlots) && reinsert(oldStash) && (homeless == null || reinsert(new Entry[]{homeless}))) {
+                return;
+            }
+            newBuckets *= 2;
+        }
+    }
+
+    private boolean reinsert(Entry[] entries) {
+        for (Entry entry : entries) {
+            if (entry != null) {
+                if (place(entry, firstHash(entry.getKey()), secondHash(entry.getKey())) != null) {
+                    return false;
+                }
+                size++;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        String key = e.getKey();
+        int h1 = firstHash(key);
+        if (findInBucket(key, h1 & (buckets - 1), h1, firstHashes) != -1) {
+            return true;
+        }
+        int h2 = secondHash(key);
+        return findInBucket(key, h2 & (buckets - 1), h2, secondHashes) != -1 || findInStash(key) != -1;
+    }
+
+    // slot index when the key is in a bucket, -2 - stash index when it is stashed, -1 when it is missing
+    private int findSlot(String key, int h1, int h2) {
+        int i = findInBucket(key, h1 & (buckets - 1), h1, firstHashes);
+        if (i == -1) {
+            i = findInBucket(key, h2 & (buckets - 1), h2, secondHashes);
+        }
+        if (i == -1) {
+            int j = findInStash(key);
+            return (j == -1) ? -1 : -2 - j;
+        }
+        return i;
+    }
+
+    private int findInBucket(String key, int bucket, int h, int[] hashes) {
+        int base = bucket * BUCKET_SIZE;
+        for (int j = 0; j < BUCKET_SIZE; j++) {
+            if (hashes[base + j] == h && slots[base + j] != null && slots[base + j].getKey().equals(key)) {
+                return base + j;
+            }
+        }
+        return -1;
+    }
+
+    private int findInStash(String key) {
+        for (int j = 0; j < stashSize; j++) {
+            if (stash[j].getKey().equals(key)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        int i = findSlot(e.getKey(), firstHash(e.getKey()), secondHash(e.getKey()));
+        if (i == -1) {
+            return false;
+        }
+
+        if (i < -1) {
+            int j = -i - 2;
+            stash[j] = stash[--stashSize];
+            stash[stashSize] = null;
+        } else {
+            slots[i] = null;
+        }
+        size--;
+        return true;
+    }
+
+    private static int firstHash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // FNV-1a over the characters, independent of String.hashCode so keys colliding there still get two buckets
+    private static int secondHash(String key) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        return h ^ (h >>> 15);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getStashSize() {
+        return stashSize;
+    }
+
+    public void printHashTableContent() {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                System.out.println(i + ".");
+            } else {
+                System.out.println(i + ". " + slots[i].getKey() + " " + slots[i].getValue());
+            }
+        }
+        for (int j = 0; j < stashSize; j++) {
+            System.out.println("stash " + j + ". " + stash[j].getKey() + " " + stash[j].getValue());
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+}
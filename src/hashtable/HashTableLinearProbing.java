@@ -1,78 +1,517 @@
 package hashtable;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
 
 import static hashtable.HashTableChaining.*;
 
-public class HashTableLinearProbing {
+public class HashTableLinearProbing implements HashTable {
     private static final Entry deletedEntry = new Entry("DELETED", "DELETED");
+    // home slot of a batch window key the filter rejected
+    private static final Entry rejectedEntry = new Entry("REJECTED", "REJECTED");
+    // slots moved from the old table by every operation while an incremental resize is running
+    private static final int REHASH_STEP = 4;
+    // a delete shrinks the table once the live entries fill less than this share of the load factor
+    private static final float SHRINK_RATIO = 0.25f;
+    // and rebuilds it at the same size once this share of all slots are tombstones
+    private static final float MAX_TOMBSTONE_RATIO = 0.25f;
+    // keys resolved together by a batch search
+    private static final int BATCH_WINDOW = 16;
+    // units of expiry work every insert and delete does on the timing wheel, see TimingWheel.advance
+    private static final int EXPIRE_STEP = 4;
+    private static final long TICK_MILLIS = 1;
 
     private Entry[] table;
+    // Robin Hood mode only: distance of every occupied slot from its home slot
+    private int[] probeDistances;
+    // always a power of two, so the home slot is picked by masking the hash instead of dividing
     private int capacity;
     private final float loadFactor;
+    private final boolean robinHood;
+    private final HashStrategy hashStrategy;
     private int size;
+    private int tombstones;
+    // the table never shrinks below the capacity it was created with
+    private final int minCapacity;
+    private int grows;
+    private int shrinks;
+    private int compactions;
+
+    private boolean incrementalResize;
+    // grows and rebuilds that are not incremental are rehashed by fork-join tasks, one per region of the new table
+    private boolean parallelResize;
+    // table being drained during an incremental resize, null otherwise
+    private Entry[] oldTable;
+    private int[] oldProbeDistances;
+    private int oldCapacity;
+    private int rehashIndex;
+
+    // reused by the byte lookups, so probing from a buffer allocates nothing
+    private final ByteKey byteKey = new ByteKey();
+    // written after every batch, so the loads that only warm the cache cannot be optimized away
+    private int batchSink;
+
+    // created by the first insert with a time to live
+    private TimingWheel wheel;
+    private LongSupplier clock = TimingWheel::systemMillis;
+    private final Consumer<ExpiringEntry> expirer = this::expired;
+    private long expirations;
+
+    // negative lookup filter, null when it is off
+    private CountingBloomFilter filter;
 
     public HashTableLinearProbing(int capacity, float loadFactor) {
-        this.capacity = capacity;
+        this(capacity, loadFactor, false);
+    }
+
+    public HashTableLinearProbing(int capacity, float loadFactor, boolean robinHood) {
+        this(capacity, loadFactor, robinHood, HashStrategy.MURMUR3);
+    }
+
+    public HashTableLinearProbing(int capacity, float loadFactor, boolean robinHood, HashStrategy hashStrategy) {
+        this.capacity = powerOfTwo(capacity);
+        this.minCapacity = this.capacity;
         this.loadFactor = loadFactor;
+        this.robinHood = robinHood;
+        this.hashStrategy = hashStrategy;
         size = 0;
-        table = new Entry[capacity];
+        tombstones = 0;
+        table = new Entry[this.capacity];
+        if (robinHood) {
+            probeDistances = new int[this.capacity];
+        }
     }
 
+    @Override
     public void insert(List<Entry> data) {
         for (Entry e : data) {
             insertEntry(e);
         }
     }
 
+    public void bulkLoad(List<Entry> data) {
+        bulkLoad(data, false);
+    }
+
+    // Inserts all entries after growing the table once to the capacity they need, instead of doubling its way up from
+    // the current one. In parallel, that grow and the inserts are done by fork-join tasks that each own one region of
+    // slots, see RegionPartition; like insertEntry, the last entry of a key wins. An insert whose probe run would
+    // leave its region is put aside by the task and done afterwards, one by one. A table holding entries with a time
+    // to live is filled entry by entry after the grow.
+    public void bulkLoad(List<Entry> data, boolean parallel) {
+        finishRehash(parallel);
+        long needed = (long) ((size + (long) data.size()) / loadFactor) + 1;
+        int newCapacity = powerOfTwo((int) Math.min(needed, 1 << 30));
+        // tombstones would be shared between the regions, a rebuild drops them
+        if (newCapacity > capacity || (parallel && tombstones > 0)) {
+            resize(Math.max(newCapacity, capacity), parallel);
+            finishRehash(parallel);
+        }
+
+        int regions = RegionPartition.regions(capacity);
+        if (!parallel || wheel != null || regions == 1) {
+            insert(data);
+            return;
+        }
+        int shift = RegionPartition.regionShift(capacity, regions);
+        RegionPartition partition = RegionPartition.of(data, hashStrategy, capacity, regions);
+        int[] added = new int[regions];
+        List<List<Entry>> spills = new ArrayList<>(Collections.nCopies(regions, null));
+        IntStream.range(0, regions).parallel().forEach(r -> {
+            List<Entry> spill = new ArrayList<>();
+            added[r] = loadRegion(partition, r, (r + 1) << shift, spill);
+            spills.set(r, spill);
+        });
+        for (int count : added) {
+            size += count;
+        }
+        for (List<Entry> spill : spills) {
+            for (Entry e : spill) {
+                insertEntry(e);
+            }
+        }
+        if (filter != null) {
+            rebuildFilter((int) Math.max(size, capacity * loadFactor));
+        }
+    }
+
+    // only touches the slots of region r, which ends before slot end, so the regions can be loaded concurrently
+    private int loadRegion(RegionPartition partition, int r, int end, List<Entry> spill) {
+        int added = 0;
+        for (int j = partition.starts[r]; j < partition.starts[r + 1]; j++) {
+            Entry e = partition.entries[j];
+            if (!runEndsBefore(partition.hashes[j] & (capacity - 1), end)) {
+                spill.add(e);
+            } else if (robinHood ? insertRobinHood(e, true) : insertLinear(e, true)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    // An insert stops at the first free slot of the run starting at its home slot, Robin Hood swaps included, so it
+    // stays below end when that free slot does.
+    private boolean runEndsBefore(int i, int end) {
+        for (; i < end; i++) {
+            if (table[i] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void insertEntry(Entry e) {
-        if (size >= loadFactor * capacity) {
-            resize();
+        expireStep();
+        if (wheel != null) {
+            // the entry replaces one that may still be on the wheel
+            unscheduleStored(e.getKey(), e.hash(hashStrategy));
+        }
+        // tombstones lengthen probes just like live entries, so they count towards the load
+        if (size + tombstones >= loadFactor * capacity) {
+            if (isRehashing()) {
+                finishRehash();
+            }
+            // a table loaded mostly by tombstones is rebuilt at the same size instead of growing
+            resize(size >= loadFactor * capacity / 2 ? capacity * 2 : capacity);
         }
+        rehashStep();
 
-        int i = hash(e);
-        while (table[i] != null && table[i] != deletedEntry && !table[i].getKey().equals(e.getKey())) {
-            i = (i + 1) % capacity;
+        if (isRehashing()) {
+            int j = findSlot(oldTable, oldProbeDistances, oldCapacity, e.getKey(), e.hash(hashStrategy));
+            if (j != -1) {
+                oldTable[j] = deletedEntry;
+                size--;
+                if (filter != null) {
+                    filter.remove(e.hash(hashStrategy));
+                }
+            }
+        }
+
+        boolean added = robinHood ? insertRobinHood(e, true) : insertLinear(e, true);
+        if (added) {
+            size++;
+            if (filter != null) {
+                filter.add(e.hash(hashStrategy));
+            }
         }
-        table[i] = e;
-        size++;
     }
 
-    private void resize() {
-        capacity *= 2;
-        Entry[] newTable = new Entry[capacity];
+    // The key may sit behind a tombstone, so the whole run is searched before the entry takes the first free slot.
+    private boolean insertLinear(Entry e, boolean checkDuplicate) {
+        int i = hash(e, capacity);
+        int free = -1;
+        for (int probes = 0; table[i] != null && probes < capacity; probes++) {
+            if (table[i] == deletedEntry) {
+                if (free == -1) {
+                    free = i;
+                }
+                if (!checkDuplicate) {
+                    break;
+                }
+            } else if (checkDuplicate && table[i].getKey().equals(e.getKey())) {
+                table[i] = e;
+                return false;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
 
-        for (Entry entry : table) {
-            if (entry != null) {
-                int i = hash(entry);
-                while (newTable[i] != null) {
-                    i = (i + 1) % capacity;
+        if (free == -1) {
+            free = i;
+        }
+        if (table[free] == deletedEntry) {
+            tombstones--;
+        }
+        table[free] = e;
+        return true;
+    }
+
+    // Walks from the home slot and swaps the carried entry with every resident that is closer to its own home,
+    // so probe distances stay evenly spread and a search can stop as soon as it is further than the resident.
+    private boolean insertRobinHood(Entry e, boolean checkDuplicate) {
+        int i = hash(e, capacity);
+        int distance = 0;
+        Entry actualEntry = e;
+
+        while (table[i] != null) {
+            if (checkDuplicate && table[i].getKey().equals(actualEntry.getKey())) {
+                table[i] = actualEntry;
+                return false;
+            }
+            if (probeDistances[i] < distance) {
+                Entry help = table[i];
+                int helpDistance = probeDistances[i];
+                table[i] = actualEntry;
+                probeDistances[i] = distance;
+                actualEntry = help;
+                distance = helpDistance;
+                checkDuplicate = false;
+            }
+            i = (i + 1) & (capacity - 1);
+            distance++;
+        }
+
+        table[i] = actualEntry;
+        probeDistances[i] = distance;
+        return true;
+    }
+
+    private void resize(int newCapacity) {
+        resize(newCapacity, parallelResize);
+    }
+
+    private void resize(int newCapacity, boolean parallel) {
+        if (newCapacity > capacity) {
+            grows++;
+            // sized for the new capacity, so the false positive rate stays put as the table grows
+            if (filter != null) {
+                rebuildFilter((int) (newCapacity * loadFactor));
+            }
+        } else if (newCapacity < capacity) {
+            shrinks++;
+        } else {
+            compactions++;
+        }
+
+        oldTable = table;
+        oldProbeDistances = probeDistances;
+        oldCapacity = capacity;
+        rehashIndex = 0;
+
+        capacity = newCapacity;
+        table = new Entry[capacity];
+        if (robinHood) {
+            probeDistances = new int[capacity];
+        }
+        tombstones = 0;
+
+        if (!incrementalResize) {
+            finishRehash(parallel);
+        }
+    }
+
+    // Moves a bounded number of old slots into the new table, so no single operation pays for the whole resize.
+    // Drained slots become tombstones, which keeps the probe chains of the old table intact until it is dropped.
+    private void rehashStep() {
+        if (!isRehashing()) {
+            return;
+        }
+
+        int end = Math.min(rehashIndex + REHASH_STEP, oldCapacity);
+        migrate(end);
+    }
+
+    private void finishRehash() {
+        finishRehash(parallelResize);
+    }
+
+    private void finishRehash(boolean parallel) {
+        if (!isRehashing()) {
+            return;
+        }
+        // only a grow or rebuild that has not started draining can be split by destination region
+        if (parallel && capacity >= oldCapacity && rehashIndex == 0 && tombstones == 0 && RegionPartition.regions(capacity) > 1) {
+            migrateInParallel();
+        } else {
+            migrate(oldCapacity);
+        }
+    }
+
+    // Every task fills one region of the new table. An entry whose new home slot is in the region had its old home
+    // at the same index modulo oldCapacity and sits somewhere in the probe run from there, so the task scans that
+    // window of the old table and on to the next free slot. The old table is only read.
+    private void migrateInParallel() {
+        int regions = RegionPartition.regions(capacity);
+        int shift = RegionPartition.regionShift(capacity, regions);
+        int window = Math.min(1 << shift, oldCapacity);
+        List<List<Entry>> spills = new ArrayList<>(Collections.nCopies(regions, null));
+        IntStream.range(0, regions).parallel().forEach(r -> {
+            List<Entry> spill = new ArrayList<>();
+            int end = (r + 1) << shift;
+            int j = (r << shift) & (oldCapacity - 1);
+            for (int scanned = 0; scanned < oldCapacity; scanned++, j = (j + 1) & (oldCapacity - 1)) {
+                Entry entry = oldTable[j];
+                if (entry == null && scanned >= window) {
+                    break;
+                }
+                if (entry == null || entry == deletedEntry || hash(entry, capacity) >>> shift != r) {
+                    continue;
+                }
+                if (!runEndsBefore(hash(entry, capacity), end)) {
+                    spill.add(entry);
+                } else if (robinHood) {
+                    insertRobinHood(entry, false);
+                } else {
+                    insertLinear(entry, false);
+                }
+            }
+            spills.set(r, spill);
+        });
+
+        for (List<Entry> spill : spills) {
+            for (Entry entry : spill) {
+                if (robinHood) {
+                    insertRobinHood(entry, false);
+                } else {
+                    insertLinear(entry, false);
                 }
-                newTable[i] = entry;
             }
         }
+        rehashIndex = oldCapacity;
+        oldTable = null;
+        oldProbeDistances = null;
+    }
+
+    private void migrate(int end) {
+        for (; rehashIndex < end; rehashIndex++) {
+            Entry entry = oldTable[rehashIndex];
+            if (entry != null && entry != deletedEntry) {
+                if (robinHood) {
+                    insertRobinHood(entry, false);
+                } else {
+                    insertLinear(entry, false);
+                }
+                oldTable[rehashIndex] = deletedEntry;
+            }
+        }
+
+        if (rehashIndex == oldCapacity) {
+            oldTable = null;
+            oldProbeDistances = null;
+        }
+    }
 
-        table = newTable;
+    public boolean isRehashing() {
+        return oldTable != null;
     }
 
+    @Override
     public void search(List<Entry> data) {
-        for (Entry e : data) {
-            searchEntry(e);
+        searchBatch(data, BATCH_WINDOW);
+    }
+
+    public BitSet searchBatch(List<Entry> data) {
+        return searchBatch(data, BATCH_WINDOW);
+    }
+
+    // Group prefetching: every key of a window is hashed first, then the home slots of the window are loaded, then
+    // the stored keys they point to, and only then are the probes resolved. The loads within one stage do not depend
+    // on each other, so the CPU keeps the cache misses of the whole window in flight instead of stalling on one
+    // lookup at a time. Bit i of the result is set when data.get(i) was found.
+    public BitSet searchBatch(List<Entry> data, int window) {
+        BitSet found = new BitSet(data.size());
+        // the old table would need a second round of loads, so a running rehash is served key by key
+        if (isRehashing()) {
+            for (int j = 0; j < data.size(); j++) {
+                if (searchEntry(data.get(j))) {
+                    found.set(j);
+                }
+            }
+            return found;
+        }
+
+        int[] hashes = new int[window];
+        Entry[] homes = new Entry[window];
+        for (int start = 0; start < data.size(); start += window) {
+            searchWindow(data, start, Math.min(window, data.size() - start), hashes, homes, found);
+        }
+        return found;
+    }
+
+    // kept apart from the loop over windows, so it is compiled as a normal method and not only on stack replacement
+    private void searchWindow(List<Entry> data, int start, int count, int[] hashes, Entry[] homes, BitSet found) {
+        for (int j = 0; j < count; j++) {
+            hashes[j] = data.get(start + j).hash(hashStrategy);
+        }
+        for (int j = 0; j < count; j++) {
+            boolean rejected = filter != null && !filter.mightContain(hashes[j]);
+            homes[j] = rejected ? rejectedEntry : table[hashes[j] & (capacity - 1)];
+        }
+        int touched = 0;
+        for (int j = 0; j < count; j++) {
+            if (homes[j] != null && homes[j] != rejectedEntry) {
+                touched += homes[j].getKey().length();
+            }
+        }
+        batchSink += touched;
+        for (int j = 0; j < count; j++) {
+            if (homes[j] == rejectedEntry) {
+                continue;
+            }
+            int i = findSlot(table, probeDistances, capacity, data.get(start + j).getKey(), hashes[j]);
+            if (i == -1 && filter != null) {
+                filter.falsePositive();
+            }
+            // expired entries count as missing but are left to the wheel, removing one could resize under the window
+            if (i != -1 && !isExpired(table[i])) {
+                found.set(start + j);
+            }
         }
     }
 
     private boolean searchEntry(Entry e) {
-        int i = hash(e);
-        while (table[i] != null) {
-            if (table[i].getKey().equals(e.getKey())) {
-                return true;
+        return findEntry(e.getKey(), e.hash(hashStrategy)) != null;
+    }
+
+    private Entry findEntry(CharSequence key, int h) {
+        rehashStep();
+        // a miss is the longest probe of all, the filter usually answers it without touching the table
+        if (filter != null && !filter.mightContain(h)) {
+            return null;
+        }
+        Entry entry = null;
+        int i = findSlot(table, probeDistances, capacity, key, h);
+        if (i != -1) {
+            entry = table[i];
+        } else if (isRehashing()) {
+            int j = findSlot(oldTable, oldProbeDistances, oldCapacity, key, h);
+            if (j != -1) {
+                entry = oldTable[j];
             }
-            i = (i + 1) % capacity;
         }
+        if (entry == null && filter != null) {
+            filter.falsePositive();
+        }
+        if (entry != null && isExpired(entry)) {
+            unschedule(removeKey(key, h));
+            expirations++;
+            return null;
+        }
+        return entry;
+    }
 
-        return false;
+    private int findSlot(Entry[] table, int[] probeDistances, int capacity, CharSequence key, int h) {
+        int i = h & (capacity - 1);
+
+        if (robinHood) {
+            int distance = 0;
+            while (table[i] != null && probeDistances[i] >= distance) {
+                if (table[i] != deletedEntry && table[i].getKey().contentEquals(key)) {
+                    return i;
+                }
+                i = (i + 1) & (capacity - 1);
+                distance++;
+            }
+            return -1;
+        }
+
+        // a table full of tombstones has no null slot left to stop at
+        for (int probes = 0; table[i] != null && probes < capacity; probes++) {
+            if (table[i] != deletedEntry && table[i].getKey().contentEquals(key)) {
+                return i;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+
+        return -1;
     }
 
+    @Override
     public void delete(List<Entry> data) {
         for (Entry e : data) {
             deleteEntry(e);
@@ -80,25 +519,320 @@ public class HashTableLinearProbing {
     }
 
     private boolean deleteEntry(Entry e) {
-        int i = hash(e);
+        return deleteKey(e.getKey(), e.hash(hashStrategy));
+    }
 
-        while (table[i] != null) {
-            if (table[i].getKey().equals(e.getKey())) {
+    private boolean deleteKey(CharSequence key, int h) {
+        expireStep();
+        Entry removed = removeKey(key, h);
+        unschedule(removed);
+        // an expired entry was gone already as far as the caller can tell
+        if (removed != null && isExpired(removed)) {
+            expirations++;
+            return false;
+        }
+        return removed != null;
+    }
+
+    // the removed entry, null when the key is missing
+    private Entry removeKey(CharSequence key, int h) {
+        rehashStep();
+
+        int i = findSlot(table, probeDistances, capacity, key, h);
+        if (i != -1) {
+            Entry removed = table[i];
+            if (robinHood) {
+                backwardShift(i);
+            } else {
                 table[i] = deletedEntry;
+                tombstones++;
+            }
+            size--;
+            if (filter != null) {
+                filter.remove(h);
+            }
+            shrinkOrCompact();
+            return removed;
+        }
+
+        if (isRehashing()) {
+            int j = findSlot(oldTable, oldProbeDistances, oldCapacity, key, h);
+            if (j != -1) {
+                Entry removed = oldTable[j];
+                oldTable[j] = deletedEntry;
                 size--;
-                return true;
+                if (filter != null) {
+                    filter.remove(h);
+                }
+                return removed;
             }
-            i = (i + 1) % capacity;
         }
 
-        return false;
+        return null;
+    }
+
+    private void unschedule(Entry entry) {
+        if (wheel != null && entry instanceof ExpiringEntry) {
+            wheel.cancel((ExpiringEntry) entry);
+        }
+    }
+
+    private void unscheduleStored(CharSequence key, int h) {
+        int i = findSlot(table, probeDistances, capacity, key, h);
+        if (i != -1) {
+            unschedule(table[i]);
+        }
+        if (isRehashing()) {
+            int j = findSlot(oldTable, oldProbeDistances, oldCapacity, key, h);
+            if (j != -1) {
+                unschedule(oldTable[j]);
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ExpiringEntry.isExpired(entry, clock);
+    }
+
+    private void expireStep() {
+        if (wheel != null) {
+            wheel.advance(clock.getAsLong(), EXPIRE_STEP, expirer);
+        }
+    }
+
+    // called by the wheel for every due entry, which it has already taken off the wheel
+    private void expired(ExpiringEntry entry) {
+        if (removeKey(entry.getKey(), entry.hash(hashStrategy)) != null) {
+            expirations++;
+        }
+    }
+
+    // Called after deletes: halves a table that a purge left mostly empty and rebuilds one clogged with tombstones.
+    // Both go through resize, so they run incrementally when incremental resizing is on.
+    private void shrinkOrCompact() {
+        if (isRehashing()) {
+            return;
+        }
+        if (capacity > minCapacity && size < loadFactor * capacity * SHRINK_RATIO) {
+            resize(capacity / 2);
+        } else if (tombstones > capacity * MAX_TOMBSTONE_RATIO) {
+            resize(capacity);
+        }
+    }
+
+    // Pulls every following entry that is not in its home slot one step back, which closes the gap
+    // left by the removed entry without leaving a tombstone behind.
+    private void backwardShift(int i) {
+        int next = (i + 1) & (capacity - 1);
+        while (table[next] != null && probeDistances[next] > 0) {
+            table[i] = table[next];
+            probeDistances[i] = probeDistances[next] - 1;
+            i = next;
+            next = (next + 1) & (capacity - 1);
+        }
+        table[i] = null;
+        probeDistances[i] = 0;
+    }
+
+    private int hash(Entry e, int capacity) {
+        return e.hash(hashStrategy) & (capacity - 1);
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    private int probeDistance(int i) {
+        if (robinHood) {
+            return probeDistances[i];
+        }
+        return (i - hash(table[i], capacity)) & (capacity - 1);
+    }
+
+    public int getMaxProbeLength() {
+        int max = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null && table[i] != deletedEntry) {
+                max = Math.max(max, probeDistance(i));
+            }
+        }
+        return max;
+    }
+
+    public double getAverageProbeLength() {
+        long sum = 0;
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null && table[i] != deletedEntry) {
+                sum += probeDistance(i);
+                count++;
+            }
+        }
+        return (count == 0) ? 0 : (double) sum / count;
+    }
+
+    // number of entries 0, 1, ... slots away from their home slot, the last cell counts every longer probe
+    public int[] getProbeLengthHistogram(int maxLength) {
+        int[] histogram = new int[maxLength + 1];
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null && table[i] != deletedEntry) {
+                histogram[Math.min(probeDistance(i), maxLength)]++;
+            }
+        }
+        return histogram;
+    }
+
+    public int getTombstoneCount() {
+        return tombstones;
+    }
+
+    public HashTableStats getStats() {
+        return new HashTableStats(size, capacity, tombstones, grows, shrinks, compactions);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Cursor based iteration with the same contract as HashTableChaining.scan. Open addressing has no buckets to walk,
+    // so the cursor walks home slots instead: a step returns every entry whose home is the cursor's slot, found in the
+    // cluster that starts there. Home slots split and merge on a resize just like the buckets of chaining do, which
+    // keeps the reverse-binary cursor valid across resizes.
+    public int scan(int cursor, int count, List<Entry> batch) {
+        int target = batch.size() + count;
+        do {
+            cursor = scanStep(cursor, batch);
+        } while (cursor != 0 && batch.size() < target);
+        return cursor;
+    }
+
+    private int scanStep(int v, List<Entry> batch) {
+        if (!isRehashing()) {
+            scanHome(table, capacity, v & (capacity - 1), batch);
+            return nextCursor(v, capacity - 1);
+        }
+
+        // both tables are live: the home slot of the smaller one, then every home slot of the larger one it splits into
+        Entry[] small = table;
+        Entry[] large = oldTable;
+        int smallCapacity = capacity;
+        int largeCapacity = oldCapacity;
+        if (oldCapacity < capacity) {
+            small = oldTable;
+            large = table;
+            smallCapacity = oldCapacity;
+            largeCapacity = capacity;
+        }
+
+        scanHome(small, smallCapacity, v & (smallCapacity - 1), batch);
+        do {
+            scanHome(large, largeCapacity, v & (largeCapacity - 1), batch);
+            v = nextCursor(v, largeCapacity - 1);
+        } while ((v & ((smallCapacity - 1) ^ (largeCapacity - 1))) != 0);
+        return v;
     }
 
-    private int hash(Entry e) {
-        return Math.abs(e.getKey().hashCode() % capacity);
+    // increments the bits under the mask in reverse order, the bits above it are carried out
+    private static int nextCursor(int v, int mask) {
+        v |= ~mask;
+        v = Integer.reverse(v);
+        v++;
+        return Integer.reverse(v);
+    }
+
+    // an entry with this home slot sits somewhere in the run of occupied slots starting at it
+    private void scanHome(Entry[] table, int capacity, int home, List<Entry> batch) {
+        int i = home;
+        for (int probes = 0; table[i] != null && probes < capacity; probes++) {
+            Entry entry = table[i];
+            if (entry != deletedEntry && hash(entry, capacity) == home && !isExpired(entry)) {
+                batch.add(entry);
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+    }
+
+    // visits every live entry once, including the ones an incremental resize has not moved yet
+    public void forEach(Consumer<Entry> action) {
+        if (isRehashing()) {
+            for (int i = rehashIndex; i < oldCapacity; i++) {
+                if (oldTable[i] != null && oldTable[i] != deletedEntry) {
+                    action.accept(oldTable[i]);
+                }
+            }
+        }
+        for (Entry entry : table) {
+            if (entry != null && entry != deletedEntry) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    // Keeps a counting Bloom filter of the keys beside the table, so most lookups of missing keys return without
+    // probing. Turning it on builds it from the current entries, turning it off drops it.
+    public void setNegativeLookupFilter(boolean enabled) {
+        if (!enabled) {
+            filter = null;
+        } else if (filter == null) {
+            rebuildFilter((int) Math.max(size, capacity * loadFactor));
+        }
+    }
+
+    // null when the filter is off
+    public CountingBloomFilter getNegativeLookupFilter() {
+        return filter;
+    }
+
+    private void rebuildFilter(int expectedEntries) {
+        CountingBloomFilter rebuilt = new CountingBloomFilter(expectedEntries);
+        if (filter != null) {
+            rebuilt.carryCounters(filter);
+        }
+        forEach(entry -> rebuilt.add(entry.hash(hashStrategy)));
+        filter = rebuilt;
+    }
+
+    public float getLoadFactor() {
+        return loadFactor;
+    }
+
+    public HashStrategy getHashStrategy() {
+        return hashStrategy;
+    }
+
+    public boolean isRobinHood() {
+        return robinHood;
+    }
+
+    public void setParallelResize(boolean parallelResize) {
+        this.parallelResize = parallelResize;
+    }
+
+    public void setIncrementalResize(boolean incrementalResize) {
+        this.incrementalResize = incrementalResize;
+        if (!incrementalResize) {
+            finishRehash();
+        }
     }
 
     public void printHashTableContent() {
+        if (isRehashing()) {
+            System.out.println("old table:");
+            for (int i = rehashIndex; i < oldCapacity; i++) {
+                if (oldTable[i] != null && oldTable[i] != deletedEntry) {
+                    System.out.println(i + ". " + oldTable[i].getKey() + " " + oldTable[i].getValue());
+                }
+            }
+            System.out.println("new table:");
+        }
         for (int i = 0; i < table.length; i++) {
             if (table[i] == null) {
                 System.out.println(i + ".");
@@ -108,15 +842,94 @@ public class HashTableLinearProbing {
         }
     }
 
+    @Override
     public void insertValue(Entry entry) {
         insertEntry(entry);
     }
 
+    // Like HashTableChaining.insertValue with a time to live; an insert of an existing key replaces the entry and with
+    // it the expiry.
+    public void insertValue(Entry entry, long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Negative time to live: " + ttlMillis);
+        }
+        long now = clock.getAsLong();
+        if (wheel == null) {
+            wheel = new TimingWheel(TICK_MILLIS, now);
+        }
+        long expiresAt = now + ttlMillis;
+        ExpiringEntry expiring = new ExpiringEntry(entry, (expiresAt < now || expiresAt == ExpiringEntry.NEVER) ? ExpiringEntry.NEVER - 1 : expiresAt);
+        insertEntry(expiring);
+        wheel.schedule(expiring);
+    }
+
+    // Expires due entries with at most budget units of work and returns how many were removed.
+    public int expire(int budget) {
+        if (wheel == null) {
+            return 0;
+        }
+        long before = expirations;
+        wheel.advance(clock.getAsLong(), budget, expirer);
+        return (int) (expirations - before);
+    }
+
+    // entries removed because their time to live ran out, lazily or by the wheel
+    public long getExpirations() {
+        return expirations;
+    }
+
+    // Milliseconds used for every time to live, only settable before the first insert with a time to live.
+    public void setClock(LongSupplier clock) {
+        if (wheel != null) {
+            throw new IllegalStateException("The clock has to be set before the first insert with a time to live");
+        }
+        this.clock = clock;
+    }
+
+    @Override
     public boolean searchValue(Entry entry) {
         return searchEntry(entry);
     }
 
+    @Override
     public boolean deleteValue(Entry entry) {
         return deleteEntry(entry);
     }
+
+    public boolean searchValue(CharSequence key) {
+        return findEntry(key, hashStrategy.hash(key)) != null;
+    }
+
+    public String get(CharSequence key) {
+        Entry entry = findEntry(key, hashStrategy.hash(key));
+        return (entry == null) ? null : entry.getValue();
+    }
+
+    public boolean deleteValue(CharSequence key) {
+        return deleteKey(key, hashStrategy.hash(key));
+    }
+
+    public boolean searchValue(byte[] key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(byte[] key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(byte[] key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
+
+    public boolean searchValue(ByteBuffer key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(ByteBuffer key, int offset, int length) {
+        return get(byteKey.set(key, offset, length));
+    }
+
+    public boolean deleteValue(ByteBuffer key, int offset, int length) {
+        return deleteValue(byteKey.set(key, offset, length));
+    }
 }
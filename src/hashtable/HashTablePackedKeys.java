@@ -0,0 +1,238 @@
+package hashtable;
+
+import java.util.List;
+
+import static hashtable.HashTableChaining.*;
+
+// Linear probing over primitive arrays for keys that KeyCodec can pack into a long. A slot is a long key and an int
+// reference into a ValueArena, so there is no Entry or String per entry and lookups compare longs instead of calling
+// String.hashCode and equals. Key 0 marks an empty slot, deletes shift the following entries back instead of
+// leaving tombstones. Like HashTableArena, the arena is rewritten without the removed and replaced values once they
+// take more room than the live ones.
+public class HashTablePackedKeys implements HashTable {
+    private static final long EMPTY = 0;
+    // the arena is never rewritten while it is smaller than this, copying a few values would not give anything back
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+
+    private long[] keys;
+    private int[] values;
+    private ValueArena arena = new ValueArena();
+    // bytes of removed and replaced values still in the arena
+    private long deadBytes;
+    private int capacity;
+    private final float loadFactor;
+    private int size;
+
+    public HashTablePackedKeys(int capacity, float loadFactor) {
+        this.loadFactor = loadFactor;
+        this.capacity = powerOfTwo(Math.max(capacity, 2));
+        keys = new long[this.capacity];
+        values = new int[this.capacity];
+        size = 0;
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        put(KeyCodec.encode(e.getKey()), e.getValue());
+    }
+
+    // returns true when the key was not in the table yet, otherwise its value is replaced
+    public boolean put(long key, String value) {
+        if (key <= EMPTY) {
+            throw new IllegalArgumentException("Not a packed key: " + key);
+        }
+        if (size + 1 > loadFactor * capacity) {
+            resize();
+        }
+
+        int i = findSlot(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            values[i] = arena.add(value);
+            size++;
+            return true;
+        }
+
+        int oldReference = values[i];
+        int oldSize = arena.getRecordSize(oldReference);
+        values[i] = arena.replace(oldReference, value);
+        deadBytes += oldSize - ((values[i] == oldReference) ? arena.getRecordSize(oldReference) : 0);
+        compactIfWasteful();
+        return false;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        capacity *= 2;
+        keys = new long[capacity];
+        values = new int[capacity];
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = findSlot(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    // slot holding the key, or the empty slot where it would go
+    private int findSlot(long key) {
+        int mask = capacity - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        // keys the codec cannot pack can never be in the table
+        return KeyCodec.isEncodable(e.getKey()) && containsKey(KeyCodec.encode(e.getKey()));
+    }
+
+    public boolean containsKey(long key) {
+        return key > EMPTY && keys[findSlot(key)] == key;
+    }
+
+    // arena reference of the value, or -1 when the key is missing; use getArena().get(reference) for the String.
+    // The reference and the arena are only valid until the next put or remove, which may rewrite the arena.
+    public int getValueReference(long key) {
+        if (key <= EMPTY) {
+            return -1;
+        }
+        int i = findSlot(key);
+        return (keys[i] == key) ? values[i] : -1;
+    }
+
+    public String get(long key) {
+        int reference = getValueReference(key);
+        return (reference == -1) ? null : arena.get(reference);
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        return KeyCodec.isEncodable(e.getKey()) && remove(KeyCodec.encode(e.getKey()));
+    }
+
+    public boolean remove(long key) {
+        if (key <= EMPTY) {
+            return false;
+        }
+        int i = findSlot(key);
+        if (keys[i] != key) {
+            return false;
+        }
+        deadBytes += arena.getRecordSize(values[i]);
+
+        // moves back every following entry whose home slot is not between the gap and its current slot
+        int mask = capacity - 1;
+        int next = (i + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[i] = EMPTY;
+        size--;
+        compactIfWasteful();
+        return true;
+    }
+
+    // Copies the live values into a new arena once the dead ones outweigh them, so updates and deletes cannot grow
+    // the arena without bound. Like a resize it touches every entry and is paid for by the changes before it.
+    private void compactIfWasteful() {
+        long used = arena.getUsedBytes();
+        if (used < MIN_COMPACTION_BYTES || deadBytes <= used - deadBytes) {
+            return;
+        }
+
+        ValueArena compacted = new ValueArena();
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != EMPTY) {
+                values[i] = compacted.copy(arena, values[i]);
+            }
+        }
+        arena = compacted;
+        deadBytes = 0;
+    }
+
+    // murmur3 finalizer, the packed letters only differ in their low bits
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static int powerOfTwo(int n) {
+        int power = 1;
+        while (power < n) {
+            power <<= 1;
+        }
+        return power;
+    }
+
+    public ValueArena getArena() {
+        return arena;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void printHashTableContent() {
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] == EMPTY) {
+                System.out.println(i + ".");
+            } else {
+                System.out.println(i + ". " + KeyCodec.decode(keys[i]) + " " + arena.get(values[i]));
+            }
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+}
@@ -0,0 +1,65 @@
+package hashtable;
+
+// Snapshot of how full a table is and how often it was rebuilt, meant for alerting on degraded tables:
+// a high tombstone ratio means long probes over dead slots, a low load means memory kept after a purge.
+public class HashTableStats {
+    private final int size;
+    private final int capacity;
+    private final int tombstones;
+    private final int grows;
+    private final int shrinks;
+    private final int compactions;
+
+    public HashTableStats(int size, int capacity, int tombstones, int grows, int shrinks, int compactions) {
+        this.size = size;
+        this.capacity = capacity;
+        this.tombstones = tombstones;
+        this.grows = grows;
+        this.shrinks = shrinks;
+        this.compactions = compactions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getTombstones() {
+        return tombstones;
+    }
+
+    public int getGrows() {
+        return grows;
+    }
+
+    public int getShrinks() {
+        return shrinks;
+    }
+
+    public int getCompactions() {
+        return compactions;
+    }
+
+    // live entries per slot or bucket
+    public double getLoad() {
+        return (double) size / capacity;
+    }
+
+    // live entries and tombstones per slot, what probe lengths actually depend on
+    public double getOccupancy() {
+        return (double) (size + tombstones) / capacity;
+    }
+
+    public double getTombstoneRatio() {
+        return (double) tombstones / capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size %d | capacity %d | tombstones %d | load %.2f | occupancy %.2f | grows %d | shrinks %d | compactions %d",
+                size, capacity, tombstones, getLoad(), getOccupancy(), grows, shrinks, compactions);
+    }
+}
@@ -0,0 +1,265 @@
+package hashtable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import static hashtable.HashTableChaining.*;
+
+// Open addressing in the style of SwissTable. Every slot has a control byte holding the low 7 bits of its hash,
+// so a probe step checks a whole group of 16 slots at once and only calls equals on fingerprint matches.
+// Groups are compared as two 64-bit words (SWAR), the scalar mode compares the control bytes one by one.
+public class HashTableSwiss implements HashTable {
+    private static final int GROUP_SIZE = 16;
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] controls;
+    private Entry[] slots;
+    private int capacity;
+    private final float loadFactor;
+    private final boolean scalar;
+    private int size;
+    private int deleted;
+
+    public HashTableSwiss(int capacity, float loadFactor) {
+        this(capacity, loadFactor, false);
+    }
+
+    public HashTableSwiss(int capacity, float loadFactor, boolean scalar) {
+        this.loadFactor = loadFactor;
+        this.scalar = scalar;
+        allocate(groupAligned(capacity));
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        controls = new byte[capacity];
+        slots = new Entry[capacity];
+        Arrays.fill(controls, EMPTY);
+        size = 0;
+        deleted = 0;
+    }
+
+    @Override
+    public void insert(List<Entry> data) {
+        for (Entry e : data) {
+            insertEntry(e);
+        }
+    }
+
+    private void insertEntry(Entry e) {
+        int h = hash(e.getKey());
+        int i = findSlot(e.getKey(), h);
+        if (i != -1) {
+            slots[i] = e;
+            return;
+        }
+
+        if (size + deleted + 1 > loadFactor * capacity) {
+            // a table clogged with deleted slots is rebuilt in place instead of growing
+            rehash(size + 1 > loadFactor * capacity / 2 ? capacity * 2 : capacity);
+        }
+        place(e, h);
+        size++;
+    }
+
+    private void place(Entry e, int h) {
+        int groupMask = capacity / GROUP_SIZE - 1;
+        int group = (h >>> 7) & groupMask;
+
+        for (int step = 1; ; step++) {
+            int base = group * GROUP_SIZE;
+            int free = scalar ? scalarFirstFree(base) : firstFree(base);
+            if (free != -1) {
+                int i = base + free;
+                if (controls[i] == DELETED) {
+                    deleted--;
+                }
+                controls[i] = (byte) (h & 0x7F);
+                slots[i] = e;
+                return;
+            }
+            // triangular steps visit every group once when the group count is a power of two
+            group = (group + step) & groupMask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        Entry[] oldSlots = slots;
+        byte[] oldControls = controls;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldControls[i] >= 0) {
+                place(oldSlots[i], hash(oldSlots[i].getKey()));
+                size++;
+            }
+        }
+    }
+
+    @Override
+    public void search(List<Entry> data) {
+        for (Entry e : data) {
+            searchEntry(e);
+        }
+    }
+
+    private boolean searchEntry(Entry e) {
+        return findSlot(e.getKey(), hash(e.getKey())) != -1;
+    }
+
+    private int findSlot(String key, int h) {
+        byte fingerprint = (byte) (h & 0x7F);
+        int groupMask = capacity / GROUP_SIZE - 1;
+        int group = (h >>> 7) & groupMask;
+
+        for (int step = 1; step <= groupMask + 1; step++) {
+            int base = group * GROUP_SIZE;
+
+            if (scalar) {
+                for (int j = 0; j < GROUP_SIZE; j++) {
+                    if (controls[base + j] == fingerprint && slots[base + j].getKey().equals(key)) {
+                        return base + j;
+                    }
+                }
+                if (scalarMatchEmpty(base)) {
+                    return -1;
+                }
+            } else {
+                for (int half = 0; half < GROUP_SIZE; half += 8) {
+                    long word = (long) LONGS.get(controls, base + half);
+                    // bytes equal to the fingerprint become zero, the zero-byte test flags them (rare false positives
+                    // are filtered out by equals)
+                    long x = word ^ (LSB * fingerprint);
+                    long matches = (x - LSB) & ~x & MSB;
+                    while (matches != 0) {
+                        int i = base + half + (Long.numberOfTrailingZeros(matches) >>> 3);
+                        if (controls[i] == fingerprint && slots[i].getKey().equals(key)) {
+                            return i;
+                        }
+                        matches &= matches - 1;
+                    }
+                }
+                if ((matchEmpty(base, 0) | matchEmpty(base, 8)) != 0) {
+                    return -1;
+                }
+            }
+            group = (group + step) & groupMask;
+        }
+        return -1;
+    }
+
+    // high bit of every byte that is EMPTY: the high bit is set and bit 1 is clear (DELETED has it set)
+    private long matchEmpty(int base, int offset) {
+        long word = (long) LONGS.get(controls, base + offset);
+        return word & ~(word << 6) & MSB;
+    }
+
+    // EMPTY and DELETED both have the high bit set, full slots always have it clear
+    private int firstFree(int base) {
+        for (int half = 0; half < GROUP_SIZE; half += 8) {
+            long free = (long) LONGS.get(controls, base + half) & MSB;
+            if (free != 0) {
+                return half + (Long.numberOfTrailingZeros(free) >>> 3);
+            }
+        }
+        return -1;
+    }
+
+    private boolean scalarMatchEmpty(int base) {
+        for (int j = 0; j < GROUP_SIZE; j++) {
+            if (controls[base + j] == EMPTY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int scalarFirstFree(int base) {
+        for (int j = 0; j < GROUP_SIZE; j++) {
+            if (controls[base + j] < 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void delete(List<Entry> data) {
+        for (Entry e : data) {
+            deleteEntry(e);
+        }
+    }
+
+    private boolean deleteEntry(Entry e) {
+        int i = findSlot(e.getKey(), hash(e.getKey()));
+        if (i == -1) {
+            return false;
+        }
+
+        // groups are probed whole, so a group that already stops every search can take an EMPTY back
+        int base = i - (i % GROUP_SIZE);
+        boolean groupHasEmpty = scalar ? scalarMatchEmpty(base) : (matchEmpty(base, 0) | matchEmpty(base, 8)) != 0;
+        if (groupHasEmpty) {
+            controls[i] = EMPTY;
+        } else {
+            controls[i] = DELETED;
+            deleted++;
+        }
+        slots[i] = null;
+        size--;
+        return true;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int groupAligned(int capacity) {
+        int aligned = GROUP_SIZE;
+        while (aligned < capacity) {
+            aligned <<= 1;
+        }
+        return aligned;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void printHashTableContent() {
+        for (int i = 0; i < capacity; i++) {
+            if (controls[i] < 0) {
+                System.out.println(i + ".");
+            } else {
+                System.out.println(i + ". " + slots[i].getKey() + " " + slots[i].getValue());
+            }
+        }
+    }
+
+    @Override
+    public void insertValue(Entry entry) {
+        insertEntry(entry);
+    }
+
+    @Override
+    public boolean searchValue(Entry entry) {
+        return searchEntry(entry);
+    }
+
+    @Override
+    public boolean deleteValue(Entry entry) {
+        return deleteEntry(entry);
+    }
+}
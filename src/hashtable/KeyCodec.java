@@ -0,0 +1,50 @@
+package hashtable;
+
+// Packs keys of up to 12 lowercase letters into a long, 5 bits per letter with the first letter in the highest bits.
+// Letters are stored as 1..26, so the length is implied by the leading zero bits and no valid key encodes to 0.
+public final class KeyCodec {
+    public static final int MAX_LENGTH = 12;
+    private static final int BITS_PER_CHAR = 5;
+    private static final int CHAR_MASK = (1 << BITS_PER_CHAR) - 1;
+
+    private KeyCodec() {
+    }
+
+    public static boolean isEncodable(CharSequence key) {
+        int length = key.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long encode(CharSequence key) {
+        if (!isEncodable(key)) {
+            throw new IllegalArgumentException("Key is not 1-" + MAX_LENGTH + " lowercase letters: " + key);
+        }
+        long packed = 0;
+        for (int i = 0; i < key.length(); i++) {
+            packed = (packed << BITS_PER_CHAR) | (key.charAt(i) - 'a' + 1);
+        }
+        return packed;
+    }
+
+    public static String decode(long packed) {
+        if (packed <= 0) {
+            throw new IllegalArgumentException("Not a packed key: " + packed);
+        }
+        char[] chars = new char[MAX_LENGTH];
+        int start = MAX_LENGTH;
+        while (packed != 0) {
+            chars[--start] = (char) ('a' - 1 + (packed & CHAR_MASK));
+            packed >>>= BITS_PER_CHAR;
+        }
+        return new String(chars, start, MAX_LENGTH - start);
+    }
+}
@@ -0,0 +1,263 @@
+package hashtable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static hashtable.HashTableChaining.*;
+
+// Read-only HashTableLinearProbing served straight from a memory-mapped snapshot file, so a restart only maps the file
+// instead of parsing and inserting every entry again. Layout, all numbers little-endian:
+//   header  64 bytes: magic, version, hash strategy, capacity, size, file length
+//   slots   capacity * 16 bytes: record position (0 = empty slot), hash, key length with the UTF-16 flag
+//   arena   one record per entry: key chars (one byte each when they all fit Latin-1, else two), value length, UTF-8 value
+// Slots are found by linear probing with the snapshot's hash strategy. The file is mapped in 1 GB chunks, and the
+// writer pads records so none of them crosses a chunk border.
+public class MappedHashTable implements AutoCloseable {
+    private static final long MAGIC = 0x50414E5350544C48L;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final int UTF16 = 0x80000000;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final HashStrategy hashStrategy;
+    private final int capacity;
+    private final int size;
+    // reused by the byte lookups, so probing from a buffer allocates nothing
+    private final ByteKey byteKey = new ByteKey();
+
+    private MappedHashTable(FileChannel channel, MappedByteBuffer[] chunks) throws IOException {
+        this.channel = channel;
+        this.chunks = chunks;
+        if (getLong(0) != MAGIC || getInt(8) != VERSION) {
+            throw new IOException("Not a hash table snapshot of version " + VERSION);
+        }
+        hashStrategy = HashStrategy.values()[getInt(12)];
+        capacity = getInt(16);
+        size = getInt(20);
+        if (getLong(24) != channel.size()) {
+            throw new IOException("Snapshot is truncated: " + channel.size() + " of " + getLong(24) + " bytes");
+        }
+    }
+
+    public static MappedHashTable open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, length - start));
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new MappedHashTable(channel, chunks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Writes the live entries of the table front to back in one pass. The slot array is laid out in memory first,
+    // the arena is streamed behind it.
+    public static void save(HashTableLinearProbing table, Path path) throws IOException {
+        HashStrategy strategy = table.getHashStrategy();
+        int capacity = table.getCapacity();
+        Entry[] entries = new Entry[table.getSize()];
+        int[] count = new int[1];
+        table.forEach(entry -> entries[count[0]++] = entry);
+
+        long[] recordPositions = new long[capacity];
+        int[] hashes = new int[capacity];
+        int[] keyInfos = new int[capacity];
+        long[] positions = new long[entries.length];
+        long position = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+
+        for (int j = 0; j < entries.length; j++) {
+            String key = entries[j].getKey();
+            long length = keyBytes(key) + 4 + entries[j].getValue().getBytes(StandardCharsets.UTF_8).length;
+            if ((position >>> CHUNK_SHIFT) != ((position + length - 1) >>> CHUNK_SHIFT)) {
+                position = ((position >>> CHUNK_SHIFT) + 1) << CHUNK_SHIFT;
+            }
+            positions[j] = position;
+            position += length;
+
+            int h = strategy.hash(key);
+            int i = h & (capacity - 1);
+            while (recordPositions[i] != 0) {
+                i = (i + 1) & (capacity - 1);
+            }
+            recordPositions[i] = positions[j];
+            hashes[i] = h;
+            keyInfos[i] = key.length() | (isLatin1(key) ? 0 : UTF16);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(MAGIC).putInt(VERSION).putInt(strategy.ordinal()).putInt(capacity).putInt(entries.length).putLong(position);
+            buffer.position(HEADER_SIZE);
+
+            for (int i = 0; i < capacity; i++) {
+                flushIfFull(channel, buffer, SLOT_SIZE);
+                buffer.putLong(recordPositions[i]).putInt(hashes[i]).putInt(keyInfos[i]);
+            }
+
+            long written = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+            for (int j = 0; j < entries.length; j++) {
+                for (; written < positions[j]; written++) {
+                    flushIfFull(channel, buffer, 1);
+                    buffer.put((byte) 0);
+                }
+
+                String key = entries[j].getKey();
+                boolean latin1 = isLatin1(key);
+                for (int k = 0; k < key.length(); k++) {
+                    flushIfFull(channel, buffer, 2);
+                    if (latin1) {
+                        buffer.put((byte) key.charAt(k));
+                    } else {
+                        buffer.putChar(key.charAt(k));
+                    }
+                }
+                byte[] value = entries[j].getValue().getBytes(StandardCharsets.UTF_8);
+                flushIfFull(channel, buffer, 4);
+                buffer.putInt(value.length);
+                for (int offset = 0; offset < value.length; ) {
+                    flushIfFull(channel, buffer, 1);
+                    int length = Math.min(buffer.remaining(), value.length - offset);
+                    buffer.put(value, offset, length);
+                    offset += length;
+                }
+                written = positions[j] + keyBytes(key) + 4 + value.length;
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static boolean isLatin1(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int keyBytes(String key) {
+        return isLatin1(key) ? key.length() : 2 * key.length();
+    }
+
+    // file position of the slot holding the key, or -1 when it is missing
+    private long findSlot(CharSequence key, int h) {
+        int i = h & (capacity - 1);
+        for (int probes = 0; probes < capacity; probes++) {
+            long slot = HEADER_SIZE + (long) i * SLOT_SIZE;
+            long record = getLong(slot);
+            if (record == 0) {
+                return -1;
+            }
+            if (getInt(slot + 8) == h && keyMatches(record, getInt(slot + 12), key)) {
+                return slot;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    private boolean keyMatches(long record, int keyInfo, CharSequence key) {
+        int length = keyInfo & ~UTF16;
+        if (length != key.length()) {
+            return false;
+        }
+        ByteBuffer chunk = chunks[(int) (record >>> CHUNK_SHIFT)];
+        int offset = (int) (record & (CHUNK_SIZE - 1));
+        boolean utf16 = (keyInfo & UTF16) != 0;
+        for (int k = 0; k < length; k++) {
+            char c = utf16 ? chunk.getChar(offset + 2 * k) : (char) (chunk.get(offset + k) & 0xFF);
+            if (c != key.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean searchValue(CharSequence key) {
+        return findSlot(key, hashStrategy.hash(key)) != -1;
+    }
+
+    public boolean searchValue(Entry entry) {
+        return findSlot(entry.getKey(), entry.hash(hashStrategy)) != -1;
+    }
+
+    public boolean searchValue(byte[] key, int offset, int length) {
+        return searchValue(byteKey.set(key, offset, length));
+    }
+
+    public String get(CharSequence key) {
+        long slot = findSlot(key, hashStrategy.hash(key));
+        if (slot == -1) {
+            return null;
+        }
+
+        long record = getLong(slot);
+        int keyInfo = getInt(slot + 12);
+        int keyLength = ((keyInfo & UTF16) != 0) ? 2 * (keyInfo & ~UTF16) : keyInfo;
+        ByteBuffer chunk = chunks[(int) (record >>> CHUNK_SHIFT)];
+        int offset = (int) (record & (CHUNK_SIZE - 1));
+        int valueLength = chunk.getInt(offset + keyLength);
+        byte[] value = new byte[valueLength];
+        chunk.get(offset + keyLength + 4, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    private int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    public HashStrategy getHashStrategy() {
+        return hashStrategy;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // the mappings stay valid until the buffers are garbage collected, Java offers no way to unmap them earlier
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
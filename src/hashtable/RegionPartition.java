@@ -0,0 +1,86 @@
+package hashtable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static hashtable.HashTableChaining.*;
+
+// Groups entries by the region of a table their hash falls into, so every region can then be filled by its own
+// fork-join task without locks. A region is a contiguous, power-of-two sized range of buckets or slots.
+// The grouping is a parallel counting sort: every chunk of the input counts its entries per region, prefix sums turn
+// the counts into offsets and every chunk scatters its entries to its own offsets. The sort is stable, so duplicate
+// keys keep their input order.
+final class RegionPartition {
+    // a region never has fewer slots than this, smaller ones would only add scheduling overhead
+    private static final int MIN_REGION_BITS = 12;
+    // more regions than workers, so a region with a long probe run does not hold up the others
+    private static final int REGIONS_PER_WORKER = 4;
+
+    final Entry[] entries;
+    final int[] hashes;
+    // region r holds entries[starts[r]] up to entries[starts[r + 1] - 1]
+    final int[] starts;
+
+    private RegionPartition(Entry[] entries, int[] hashes, int[] starts) {
+        this.entries = entries;
+        this.hashes = hashes;
+        this.starts = starts;
+    }
+
+    // number of regions a table of this capacity is split into, a power of two and 1 when it is too small
+    static int regions(int capacity) {
+        int workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        int regions = Integer.highestOneBit(workers * REGIONS_PER_WORKER - 1) << 1;
+        return Math.max(1, Math.min(regions, capacity >>> MIN_REGION_BITS));
+    }
+
+    // shift that turns a slot index of the table into its region index
+    static int regionShift(int capacity, int regions) {
+        return Integer.numberOfTrailingZeros(capacity / regions);
+    }
+
+    static RegionPartition of(List<Entry> input, HashStrategy strategy, int capacity, int regions) {
+        List<Entry> data = (input instanceof RandomAccess) ? input : new ArrayList<>(input);
+        int n = data.size();
+        int shift = regionShift(capacity, regions);
+        int chunks = regions;
+        int chunkSize = (n + chunks - 1) / chunks;
+
+        int[] hashes = new int[n];
+        int[][] counts = new int[chunks][regions];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = counts[c];
+            for (int j = c * chunkSize, end = Math.min(n, j + chunkSize); j < end; j++) {
+                hashes[j] = data.get(j).hash(strategy);
+                count[(hashes[j] & (capacity - 1)) >>> shift]++;
+            }
+        });
+
+        int[] starts = new int[regions + 1];
+        int offset = 0;
+        for (int r = 0; r < regions; r++) {
+            starts[r] = offset;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][r];
+                counts[c][r] = offset;
+                offset += count;
+            }
+        }
+        starts[regions] = offset;
+
+        Entry[] entries = new Entry[n];
+        int[] sortedHashes = new int[n];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] next = counts[c];
+            for (int j = c * chunkSize, end = Math.min(n, j + chunkSize); j < end; j++) {
+                int k = next[(hashes[j] & (capacity - 1)) >>> shift]++;
+                entries[k] = data.get(j);
+                sortedHashes[k] = hashes[j];
+            }
+        });
+        return new RegionPartition(entries, sortedHashes, starts);
+    }
+}
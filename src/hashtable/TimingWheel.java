@@ -0,0 +1,155 @@
+package hashtable;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel (Varghese and Lauck) with six levels of 64 slots. Level 0 has one slot per tick, every
+// slot of level l spans 64^l ticks, so six levels cover about two years of 1 ms ticks. An entry goes to the lowest
+// level whose range reaches its expiry; when the wheel turns past a slot of a higher level, its entries are moved
+// down. Scheduling and cancelling are O(1), and advance does a bounded amount of work per call, so expiring a burst
+// of entries is spread over many calls instead of stalling one of them.
+final class TimingWheel {
+    private static final int LEVELS = 6;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    // heads of intrusive lists through ExpiringEntry.wheelPrev and wheelNext, slot s of level l at l * SLOTS + s
+    private final ExpiringEntry[] slots = new ExpiringEntry[LEVELS * SLOTS];
+    private final int[] levelSizes = new int[LEVELS];
+    private final long tickMillis;
+    private long currentTick;
+    // level whose slot for currentTick still has to be moved down before the tick can expire anything, 0 when none
+    private int cascadeLevel;
+    private int size;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    static long systemMillis() {
+        return System.nanoTime() / 1000000;
+    }
+
+    void schedule(ExpiringEntry entry) {
+        long expireTick = entry.expiresAt / tickMillis + ((entry.expiresAt % tickMillis == 0) ? 0 : 1);
+        long delta = expireTick - currentTick;
+        int level = 0;
+        if (delta <= 0) {
+            // already due, the current slot is expired on the next advance
+            expireTick = currentTick;
+        } else {
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            // beyond the top level: parked in its furthest slot and placed again when that slot cascades
+            if (delta >= 1L << (SLOT_BITS * LEVELS)) {
+                expireTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+            }
+        }
+        link(entry, level * SLOTS + (int) ((expireTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    void cancel(ExpiringEntry entry) {
+        if (entry.wheelSlot != -1) {
+            unlink(entry);
+        }
+    }
+
+    // Turns the wheel towards nowMillis and hands every due entry, already off the wheel, to expire. Stops early once
+    // budget units of work are done, one unit for every entry expired or moved down and every step of the wheel.
+    // Returns the unused budget.
+    int advance(long nowMillis, int budget, Consumer<ExpiringEntry> expire) {
+        long nowTick = nowMillis / tickMillis;
+        if (size == 0) {
+            // nothing to expire or move down, the wheel just catches up
+            currentTick = Math.max(currentTick, nowTick);
+            cascadeLevel = 0;
+            return budget;
+        }
+
+        while (budget > 0) {
+            if (cascadeLevel > 0) {
+                int index = (int) ((currentTick >>> (SLOT_BITS * cascadeLevel)) & SLOT_MASK);
+                ExpiringEntry entry = slots[cascadeLevel * SLOTS + index];
+                if (entry != null) {
+                    unlink(entry);
+                    schedule(entry);
+                    budget--;
+                    continue;
+                }
+                // when this level wrapped around as well, the next one has a slot to move down too
+                cascadeLevel = (index == 0 && cascadeLevel < LEVELS - 1) ? cascadeLevel + 1 : 0;
+                continue;
+            }
+
+            ExpiringEntry entry = slots[(int) (currentTick & SLOT_MASK)];
+            if (entry != null) {
+                unlink(entry);
+                budget--;
+                expire.accept(entry);
+                continue;
+            }
+            if (currentTick >= nowTick) {
+                break;
+            }
+
+            currentTick = nextTick(nowTick);
+            budget--;
+            if ((currentTick & SLOT_MASK) == 0) {
+                cascadeLevel = 1;
+            }
+        }
+        return budget;
+    }
+
+    // With the lower levels empty no tick can have work before the next cascade of the lowest occupied level, so the
+    // wheel skips straight to it instead of stepping through empty ticks.
+    private long nextTick(long nowTick) {
+        int level = 0;
+        while (level < LEVELS && levelSizes[level] == 0) {
+            level++;
+        }
+        if (level == 0) {
+            return currentTick + 1;
+        }
+        if (level == LEVELS) {
+            return nowTick;
+        }
+        long boundary = ((currentTick >>> (SLOT_BITS * level)) + 1) << (SLOT_BITS * level);
+        return Math.min(boundary, nowTick);
+    }
+
+    private void link(ExpiringEntry entry, int slot) {
+        ExpiringEntry head = slots[slot];
+        entry.wheelPrev = null;
+        entry.wheelNext = head;
+        if (head != null) {
+            head.wheelPrev = entry;
+        }
+        slots[slot] = entry;
+        entry.wheelSlot = slot;
+        levelSizes[slot >>> SLOT_BITS]++;
+        size++;
+    }
+
+    private void unlink(ExpiringEntry entry) {
+        if (entry.wheelPrev != null) {
+            entry.wheelPrev.wheelNext = entry.wheelNext;
+        } else {
+            slots[entry.wheelSlot] = entry.wheelNext;
+        }
+        if (entry.wheelNext != null) {
+            entry.wheelNext.wheelPrev = entry.wheelPrev;
+        }
+        levelSizes[entry.wheelSlot >>> SLOT_BITS]--;
+        size--;
+        entry.wheelPrev = null;
+        entry.wheelNext = null;
+        entry.wheelSlot = -1;
+    }
+
+    int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,65 @@
+package hashtable;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import static hashtable.HashTableChaining.*;
+
+// Bucket of HashTableChaining once its chain got too long. Entries are kept in a red-black tree ordered by hash
+// and then by key, so a lookup in a flooded bucket costs O(log n) comparisons instead of a scan of the whole chain.
+// It is still a List, so iterating, adding and migrating buckets works the same for both kinds.
+class TreeBucket extends AbstractList<Entry> {
+    private static final Comparator<CharSequence> hashThenKey = (a, b) -> {
+        int compare = Integer.compare(ByteKey.hash(a), ByteKey.hash(b));
+        return (compare != 0) ? compare : CharSequence.compare(a, b);
+    };
+
+    private final TreeMap<CharSequence, Entry> entries = new TreeMap<>(hashThenKey);
+
+    TreeBucket(Collection<Entry> bucket) {
+        for (Entry entry : bucket) {
+            entries.put(entry.getKey(), entry);
+        }
+    }
+
+    Entry find(CharSequence key) {
+        return entries.get(key);
+    }
+
+    // the removed entry, null when the key is missing
+    Entry remove(CharSequence key) {
+        return entries.remove(key);
+    }
+
+    // callers check for the key first, an existing entry is kept
+    @Override
+    public boolean add(Entry entry) {
+        return entries.putIfAbsent(entry.getKey(), entry) == null;
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        return entries.values().iterator();
+    }
+
+    // walks the tree, only meant for code that treats every bucket as a plain list
+    @Override
+    public Entry get(int index) {
+        if (index < 0 || index >= entries.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + entries.size());
+        }
+        Iterator<Entry> iterator = iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+}
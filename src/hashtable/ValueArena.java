@@ -0,0 +1,118 @@
+package hashtable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Store for value strings. Values are written as a 2-byte length and their UTF-8 bytes into large slabs,
+// so a table only keeps an int reference per entry instead of a String object with its own byte array.
+// A reference is the slab index and the position in it, and stays non-negative. A value is only written over in
+// place by one that fits; other space of removed or replaced values is given back by copying the live values into
+// a new arena, or by clear().
+public class ValueArena {
+    private static final int SLAB_SHIFT = 20;
+    private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+    // more slabs would push the slab index into the sign bit of a reference
+    private static final int MAX_SLABS = 1 << (31 - SLAB_SHIFT);
+    private static final int MAX_VALUE_LENGTH = 0xFFFF;
+
+    private final List<byte[]> slabs = new ArrayList<>();
+    private byte[] current;
+    private int position;
+    private long usedBytes;
+
+    public ValueArena() {
+        clear();
+    }
+
+    // returns a reference that stays valid until clear()
+    public int add(String value) {
+        return add(encode(value));
+    }
+
+    // Writes the value over the one at reference when it is not longer, so updating a key with a value of the same
+    // size takes no new space. Otherwise the value is added and the old record is left behind. Returns the reference
+    // of the value, the same one when it was written in place.
+    public int replace(int reference, String value) {
+        byte[] bytes = encode(value);
+        byte[] slab = slabs.get(reference >>> SLAB_SHIFT);
+        int offset = reference & (SLAB_SIZE - 1);
+        if (bytes.length > length(slab, offset)) {
+            return add(bytes);
+        }
+        write(slab, offset, bytes);
+        return reference;
+    }
+
+    // copies a value of another arena, for rewriting an arena without its dead values
+    public int copy(ValueArena from, int reference) {
+        byte[] slab = from.slabs.get(reference >>> SLAB_SHIFT);
+        int offset = reference & (SLAB_SIZE - 1);
+        byte[] bytes = new byte[length(slab, offset)];
+        System.arraycopy(slab, offset + 2, bytes, 0, bytes.length);
+        return add(bytes);
+    }
+
+    private int add(byte[] bytes) {
+        if (position + 2 + bytes.length > SLAB_SIZE) {
+            if (slabs.size() == MAX_SLABS) {
+                throw new IllegalStateException("Arena is full: " + MAX_SLABS + " slabs");
+            }
+            current = new byte[SLAB_SIZE];
+            slabs.add(current);
+            position = 0;
+        }
+
+        int reference = ((slabs.size() - 1) << SLAB_SHIFT) | position;
+        write(current, position, bytes);
+        position += 2 + bytes.length;
+        usedBytes += 2 + bytes.length;
+        return reference;
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_VALUE_LENGTH) {
+            throw new IllegalArgumentException("Value longer than " + MAX_VALUE_LENGTH + " bytes");
+        }
+        return bytes;
+    }
+
+    private static void write(byte[] slab, int offset, byte[] bytes) {
+        slab[offset] = (byte) (bytes.length >>> 8);
+        slab[offset + 1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, slab, offset + 2, bytes.length);
+    }
+
+    private static int length(byte[] slab, int offset) {
+        return ((slab[offset] & 0xFF) << 8) | (slab[offset + 1] & 0xFF);
+    }
+
+    public String get(int reference) {
+        byte[] slab = slabs.get(reference >>> SLAB_SHIFT);
+        int offset = reference & (SLAB_SIZE - 1);
+        return new String(slab, offset + 2, length(slab, offset), StandardCharsets.UTF_8);
+    }
+
+    // bytes the value takes now, a value written in place may leave unused bytes after it
+    public int getRecordSize(int reference) {
+        return 2 + length(slabs.get(reference >>> SLAB_SHIFT), reference & (SLAB_SIZE - 1));
+    }
+
+    // bytes taken by values when they were added, live or removed
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getAllocatedBytes() {
+        return (long) slabs.size() * SLAB_SIZE;
+    }
+
+    public void clear() {
+        slabs.clear();
+        current = new byte[SLAB_SIZE];
+        slabs.add(current);
+        position = 0;
+        usedBytes = 0;
+    }
+}